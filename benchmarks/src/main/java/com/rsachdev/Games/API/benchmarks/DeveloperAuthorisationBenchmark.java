@@ -0,0 +1,71 @@
+package com.rsachdev.Games.API.benchmarks;
+
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.service.DeveloperIndex;
+import com.rsachdev.Games.API.service.DeveloperRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authorisation lookups for developer lists from a handful of studios up to a large catalogue.
+ * Request headers are not normalised, so the names looked up differ in case and padding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeveloperAuthorisationBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({"10", "1000", "100000"})
+    public int developers;
+
+    private DeveloperIndex index;
+    private DeveloperRegistry registry;
+    private String[] authorised;
+    private String[] unknown;
+
+    @Setup
+    public void setUp() throws ServiceException {
+        index = DeveloperIndex.of(Fixtures.developers(developers));
+        registry = Fixtures.developerRegistry(Fixtures.developers(developers));
+        registry.isAuthorised(Fixtures.developerName(0));
+
+        authorised = new String[LOOKUPS];
+        unknown = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String name = Fixtures.developerName(ThreadLocalRandom.current().nextInt(developers));
+            authorised[i] = i % 2 == 0 ? "  " + name.toUpperCase() + " " : name;
+            unknown[i] = "Unknown Studio " + i;
+        }
+    }
+
+    @Benchmark
+    public boolean indexHit() {
+        return index.contains(authorised[ThreadLocalRandom.current().nextInt(LOOKUPS)]);
+    }
+
+    @Benchmark
+    public boolean indexMiss() {
+        return index.contains(unknown[ThreadLocalRandom.current().nextInt(LOOKUPS)]);
+    }
+
+    @Benchmark
+    public boolean registryHit() throws ServiceException {
+        return registry.isAuthorised(authorised[ThreadLocalRandom.current().nextInt(LOOKUPS)]);
+    }
+}
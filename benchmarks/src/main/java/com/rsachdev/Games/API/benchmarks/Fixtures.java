@@ -0,0 +1,139 @@
+package com.rsachdev.Games.API.benchmarks;
+
+import com.rsachdev.Games.API.model.Developer;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.repository.GameRepository;
+import com.rsachdev.Games.API.service.AmazonS3Service;
+import com.rsachdev.Games.API.service.Bulkhead;
+import com.rsachdev.Games.API.service.CircuitBreaker;
+import com.rsachdev.Games.API.service.DeveloperIndex;
+import com.rsachdev.Games.API.service.DeveloperRegistry;
+import com.rsachdev.Games.API.service.GameCache;
+import com.rsachdev.Games.API.service.GameCountCache;
+import com.rsachdev.Games.API.service.GameInsertBatcher;
+import com.rsachdev.Games.API.service.GameService;
+import com.rsachdev.Games.API.service.TitleSearchIndex;
+import com.rsachdev.Games.API.validation.GameValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builds the services the benchmarks exercise, wired by hand in place of the Spring context.
+ */
+final class Fixtures {
+    static final String[] WORDS = {"super", "mega", "dragon", "quest", "racer", "legend", "shadow", "star",
+            "kingdom", "battle", "city", "ocean", "galaxy", "knight", "puzzle", "football"};
+    static final String[] GENRES = {"action", "adventure", "puzzle", "racing", "rpg", "shooter", "sports", "strategy"};
+
+    private Fixtures() {
+    }
+
+    static String developerName(int i) {
+        return "Developer Studio " + i;
+    }
+
+    static List<Developer> developers(int count) {
+        List<Developer> developers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Developer developer = new Developer();
+            developer.setName(developerName(i));
+            developer.setHeadquarters("City " + i);
+            developers.add(developer);
+        }
+        return developers;
+    }
+
+    static Game game(int i, String developer) {
+        Game game = new Game();
+        game.setId(String.format("%08d-0000-4000-8000-000000000000", i));
+        game.setTitle(WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i);
+        game.setReleaseDate(LocalDate.of(2000, 1, 1).plusDays(i % 7000));
+        game.setGenres(Arrays.asList(GENRES[i % GENRES.length], GENRES[(i + 3) % GENRES.length]));
+        game.setDeveloper(developer);
+        game.setVersion((long) (i % 5));
+        return game;
+    }
+
+    static Games page(int size) {
+        List<Game> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(game(i, developerName(i % 50)));
+        }
+
+        Games games = new Games();
+        games.setItems(items);
+        games.setItemsPerPage(size);
+        games.setStartIndex(0L);
+        games.setTotalResults(10_000L);
+        games.setTotalResultsExact(true);
+        return games;
+    }
+
+    static InMemoryGameRepository repository(int size, int developers) {
+        InMemoryGameRepository repository = new InMemoryGameRepository();
+        for (int i = 0; i < size; i++) {
+            repository.insert(game(i, developerName(i % developers)));
+        }
+        return repository;
+    }
+
+    static DeveloperRegistry developerRegistry(List<Developer> developers) {
+        AmazonS3Service s3 = new AmazonS3Service() {
+            @Override
+            public DeveloperIndex getAuthorisedDevelopers(String eTag) {
+                return eTag == null ? DeveloperIndex.of(developers, "etag") : null;
+            }
+        };
+
+        DeveloperRegistry registry = new DeveloperRegistry();
+        ReflectionTestUtils.setField(registry, "amazonS3Service", s3);
+        ReflectionTestUtils.setField(registry, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "s3Fetches", new Bulkhead("s3", 1, 1, 3000));
+        ReflectionTestUtils.setField(registry, "s3Circuit", new CircuitBreaker("s3", 50, 4, 2, 30000, 1));
+        ReflectionTestUtils.invokeMethod(registry, "registerMetrics");
+        return registry;
+    }
+
+    static GameCache gameCache(boolean enabled) {
+        GameCache cache = new GameCache();
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maximumSize", 10_000L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "negativeTtlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        return cache;
+    }
+
+    static TitleSearchIndex titleSearchIndex(GameRepository repository) {
+        TitleSearchIndex index = new TitleSearchIndex();
+        ReflectionTestUtils.setField(index, "maxResults", 50);
+        ReflectionTestUtils.setField(index, "loadBatchSize", 1000);
+        ReflectionTestUtils.setField(index, "gameRepository", repository);
+        index.rebuild();
+        return index;
+    }
+
+    static GameService gameService(GameRepository repository, DeveloperRegistry registry, GameCache cache) {
+        GameCountCache countCache = new GameCountCache();
+        ReflectionTestUtils.setField(countCache, "gameRepository", repository);
+
+        GameService service = new GameService();
+        ReflectionTestUtils.setField(service, "gameRepository", repository);
+        ReflectionTestUtils.setField(service, "gameValidator", new GameValidator());
+        ReflectionTestUtils.setField(service, "developerRegistry", registry);
+        ReflectionTestUtils.setField(service, "gameCache", cache);
+        ReflectionTestUtils.setField(service, "gameCountCache", countCache);
+        ReflectionTestUtils.setField(service, "gameInsertBatcher", new GameInsertBatcher());
+        ReflectionTestUtils.setField(service, "titleSearchIndex", titleSearchIndex(repository));
+        ReflectionTestUtils.setField(service, "maxItemsPerPage", 1000);
+        ReflectionTestUtils.setField(service, "maxSearchResults", 50);
+        return service;
+    }
+}
@@ -0,0 +1,120 @@
+package com.rsachdev.Games.API.benchmarks;
+
+import com.rsachdev.Games.API.exception.ResourceNotFoundException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.service.GameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameService against the in-memory repository, with the GameCache switched on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameServiceBenchmark {
+    private static final int GAMES = 10_000;
+    private static final int DEVELOPERS = 500;
+    private static final int MISSING_IDS = 1024;
+    private static final GameFilter NO_FILTER = new GameFilter();
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private InMemoryGameRepository repository;
+    private GameService gameService;
+    private String developer;
+    private String[] missingIds;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws ValidationException {
+        repository = Fixtures.repository(GAMES, DEVELOPERS);
+        gameService = Fixtures.gameService(repository, Fixtures.developerRegistry(Fixtures.developers(DEVELOPERS)),
+                Fixtures.gameCache(cacheEnabled));
+        developer = Fixtures.developerName(DEVELOPERS / 2);
+
+        missingIds = new String[MISSING_IDS];
+        for (int i = 0; i < MISSING_IDS; i++) {
+            missingIds[i] = Fixtures.game(GAMES + i, developer).getId();
+        }
+    }
+
+    @Benchmark
+    public Game getById() throws ServiceException, ResourceNotFoundException {
+        int i = ThreadLocalRandom.current().nextInt(GAMES);
+        return gameService.getById(Fixtures.game(i, developer).getId());
+    }
+
+    /**
+     * Probes for an id that does not exist, the cost of which is dominated by how the miss is reported.
+     */
+    @Benchmark
+    public Object getByIdMiss() throws ServiceException {
+        try {
+            return gameService.getById(missingIds[ThreadLocalRandom.current().nextInt(MISSING_IDS)]);
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Optional<Game> findByIdMiss() throws ServiceException {
+        return gameService.findById(missingIds[ThreadLocalRandom.current().nextInt(MISSING_IDS)], GameFields.ALL);
+    }
+
+    @Benchmark
+    public Game createGame() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        Game game = Fixtures.game(0, developer);
+        game.setVersion(null);
+        return gameService.createGame(game, developer);
+    }
+
+    @Benchmark
+    public Games listAllGames(ListParameters list) throws ServiceException, ValidationException {
+        int page = ThreadLocalRandom.current().nextInt(GAMES / 10);
+        return gameService.listAllGames(NO_FILTER, list.gameFields, Integer.toString(page), "10", list.includeTotal);
+    }
+
+    /**
+     * The parameters only listAllGames takes, kept apart so the other benchmarks are not run once
+     * for each of their combinations.
+     */
+    @State(Scope.Benchmark)
+    public static class ListParameters {
+        @Param({"true", "estimated", "false"})
+        public String includeTotal;
+
+        @Param({"", "id,title"})
+        public String fields;
+
+        private GameFields gameFields;
+
+        @Setup
+        public void setUp() throws ValidationException {
+            gameFields = GameFields.of(fields);
+        }
+    }
+}
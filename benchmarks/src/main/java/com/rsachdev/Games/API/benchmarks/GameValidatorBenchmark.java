@@ -0,0 +1,47 @@
+package com.rsachdev.Games.API.benchmarks;
+
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.validation.GameValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameValidatorBenchmark {
+    private GameValidator gameValidator;
+    private Game validGame;
+    private Game invalidGame;
+
+    @Setup
+    public void setUp() {
+        gameValidator = new GameValidator();
+        validGame = Fixtures.game(1, Fixtures.developerName(1));
+        invalidGame = new Game();
+        invalidGame.setTitle(" ");
+    }
+
+    @Benchmark
+    public List<String> validGame() {
+        return gameValidator.validateNotNullOrEmpty(validGame);
+    }
+
+    @Benchmark
+    public List<String> invalidGame() {
+        return gameValidator.validateNotNullOrEmpty(invalidGame);
+    }
+}
@@ -0,0 +1,338 @@
+package com.rsachdev.Games.API.benchmarks;
+
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.repository.GameRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stand-in for the MongoDB backed repository, so the benchmarks measure the application code
+ * rather than the network and the database. Games are kept in id order, as they are in the
+ * _id index. Query by example is not supported.
+ */
+public class InMemoryGameRepository implements GameRepository {
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final ConcurrentNavigableMap<String, Game> games = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Slice<Game> findAllBy(Pageable pageable) {
+        List<Game> content = page(pageable);
+        boolean hasNext = pageable.getOffset() + content.size() < games.size();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<Game> findAllByOrderByIdAsc(Pageable pageable) {
+        return page(pageable);
+    }
+
+    @Override
+    public List<Game> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable) {
+        return games.tailMap(id, false).values().stream()
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void ensureFilterIndexes() {
+    }
+
+    @Override
+    public long estimatedCount() {
+        return games.size();
+    }
+
+    @Override
+    public Optional<Game> findProjected(String id, GameFields fields) {
+        return findById(id).map(game -> project(game, fields));
+    }
+
+    @Override
+    public Slice<Game> findMatching(GameFilter filter, GameFields fields, Pageable pageable) {
+        List<Game> content = games.values().stream()
+                .filter(game -> matches(filter, game))
+                .map(game -> project(game, fields))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .collect(Collectors.toList());
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long countMatching(GameFilter filter) {
+        return games.values().stream().filter(game -> matches(filter, game)).count();
+    }
+
+    @Override
+    public List<Game> findMatchingAfter(GameFilter filter, GameFields fields, String afterId, int limit) {
+        return (afterId == null ? games : games.tailMap(afterId, false)).values().stream()
+                .filter(game -> matches(filter, game))
+                .map(game -> project(game, fields))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Game updateIfDeveloper(Game game, String developer, Long expectedVersion) {
+        Game existing = games.get(game.getId());
+
+        if (existing == null || !ownedBy(existing, developer) || (expectedVersion != null && !expectedVersion.equals(existing.getVersion()))) {
+            return null;
+        }
+
+        game.setVersion(existing.getVersion() == null ? 1L : existing.getVersion() + 1);
+        return games.replace(game.getId(), existing, game) ? game : null;
+    }
+
+    @Override
+    public boolean deleteIfDeveloper(String id, String developer, Long expectedVersion) {
+        Game existing = games.get(id);
+
+        if (existing == null || !ownedBy(existing, developer) || (expectedVersion != null && !expectedVersion.equals(existing.getVersion()))) {
+            return false;
+        }
+
+        return games.remove(id, existing);
+    }
+
+    @Override
+    public Map<Integer, Integer> insertUnordered(List<Game> batch) {
+        Map<Integer, Integer> failures = new HashMap<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (games.putIfAbsent(batch.get(i).getId(), batch.get(i)) != null) {
+                failures.put(i, DUPLICATE_KEY);
+            }
+        }
+
+        return failures;
+    }
+
+    @Override
+    public long updateUnorderedIfDeveloper(List<Game> batch, String developer) {
+        return batch.stream().filter(game -> updateIfDeveloper(game, developer, null) != null).count();
+    }
+
+    @Override
+    public CloseableIterator<Game> streamAfter(GameFilter filter, String afterId, int batchSize) {
+        Iterator<Game> iterator = (afterId == null ? games : games.tailMap(afterId, false)).values().stream()
+                .filter(game -> matches(filter, game))
+                .iterator();
+
+        return new CloseableIterator<Game>() {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Game next() {
+                return iterator.next();
+            }
+        };
+    }
+
+    @Override
+    public <S extends Game> S insert(S game) {
+        if (games.putIfAbsent(game.getId(), game) != null) {
+            throw new DuplicateKeyException("Game " + game.getId() + " already exists");
+        }
+        return game;
+    }
+
+    @Override
+    public <S extends Game> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(game -> inserted.add(insert(game)));
+        return inserted;
+    }
+
+    @Override
+    public <S extends Game> S save(S game) {
+        games.put(game.getId(), game);
+        return game;
+    }
+
+    @Override
+    public <S extends Game> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(game -> saved.add(save(game)));
+        return saved;
+    }
+
+    @Override
+    public Optional<Game> findById(String id) {
+        return Optional.ofNullable(games.get(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return games.containsKey(id);
+    }
+
+    @Override
+    public List<Game> findAll() {
+        return new ArrayList<>(games.values());
+    }
+
+    @Override
+    public List<Game> findAll(Sort sort) {
+        if (sort.isSorted()) {
+            throw new UnsupportedOperationException("Only id order is supported");
+        }
+        return findAll();
+    }
+
+    @Override
+    public Page<Game> findAll(Pageable pageable) {
+        return new PageImpl<>(page(pageable), pageable, games.size());
+    }
+
+    @Override
+    public Iterable<Game> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(games::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long count() {
+        return games.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        games.remove(id);
+    }
+
+    @Override
+    public void delete(Game game) {
+        games.remove(game.getId());
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Game> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        games.clear();
+    }
+
+    @Override
+    public <S extends Game> Optional<S> findOne(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Game> List<S> findAll(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Game> List<S> findAll(Example<S> example, Sort sort) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Game> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Game> long count(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    @Override
+    public <S extends Game> boolean exists(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported");
+    }
+
+    private List<Game> page(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return findAll();
+        }
+
+        return games.values().stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private boolean ownedBy(Game game, String developer) {
+        return game.getDeveloper() != null && game.getDeveloper().trim().equalsIgnoreCase(developer.trim());
+    }
+
+    private boolean matches(GameFilter filter, Game game) {
+        if (filter.getDeveloper() != null && !filter.getDeveloper().trim().equalsIgnoreCase(game.getDeveloper())) {
+            return false;
+        }
+
+        if (filter.getGenres() != null && !filter.getGenres().isEmpty()) {
+            List<String> genres = game.getGenres() == null ? Collections.emptyList() : game.getGenres();
+            boolean matched = filter.isMatchAllGenres()
+                    ? filter.getGenres().stream().allMatch(wanted -> genres.stream().anyMatch(wanted::equalsIgnoreCase))
+                    : filter.getGenres().stream().anyMatch(wanted -> genres.stream().anyMatch(wanted::equalsIgnoreCase));
+            if (!matched) {
+                return false;
+            }
+        }
+
+        if (filter.getReleasedAfter() != null && (game.getReleaseDate() == null || !game.getReleaseDate().isAfter(filter.getReleasedAfter()))) {
+            return false;
+        }
+
+        return filter.getReleasedBefore() == null || (game.getReleaseDate() != null && game.getReleaseDate().isBefore(filter.getReleasedBefore()));
+    }
+
+    /**
+     * Copies only the requested fields, as MongoDB would return them for a projection.
+     */
+    private Game project(Game game, GameFields fields) {
+        if (fields.isAll()) {
+            return game;
+        }
+
+        Set<String> include = fields.getDocumentFields();
+        Game projected = new Game();
+        projected.setId(game.getId());
+        projected.setTitle(include.contains("title") ? game.getTitle() : null);
+        projected.setReleaseDate(include.contains("release_date") ? game.getReleaseDate() : null);
+        projected.setGenres(include.contains("genres") ? game.getGenres() : null);
+        projected.setDeveloper(include.contains("developer") ? game.getDeveloper() : null);
+        projected.setVersion(include.contains("version") ? game.getVersion() : null);
+        return projected;
+    }
+}
@@ -0,0 +1,116 @@
+package com.rsachdev.Games.API.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.Games;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A single game and a 100 item page in each encoding the controllers can negotiate, using
+ * ObjectMappers configured the way Spring Boot configures the one used by the controllers.
+ * The encoded and gzipped sizes of each payload are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"json", "smile", "cbor", "msgpack"})
+    public String format;
+
+    private ObjectWriter gameWriter;
+    private ObjectReader gameReader;
+    private ObjectWriter gamesWriter;
+    private ObjectReader gamesReader;
+
+    private Game game;
+    private Games games;
+    private byte[] gameBytes;
+    private byte[] gamesBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = mapper(format);
+
+        gameWriter = mapper.writerFor(Game.class);
+        gameReader = mapper.readerFor(Game.class);
+        gamesWriter = mapper.writerFor(Games.class);
+        gamesReader = mapper.readerFor(Games.class);
+
+        game = Fixtures.game(1, Fixtures.developerName(1));
+        games = Fixtures.page(PAGE_SIZE);
+        gameBytes = gameWriter.writeValueAsBytes(game);
+        gamesBytes = gamesWriter.writeValueAsBytes(games);
+
+        System.out.printf("%n%s: game %d bytes (%d gzipped), page %d bytes (%d gzipped)%n", format,
+                gameBytes.length, gzip(gameBytes).length, gamesBytes.length, gzip(gamesBytes).length);
+    }
+
+    @Benchmark
+    public byte[] serializeGame() throws IOException {
+        return gameWriter.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public Game deserializeGame() throws IOException {
+        return gameReader.readValue(gameBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return gamesWriter.writeValueAsBytes(games);
+    }
+
+    @Benchmark
+    public Games deserializePage() throws IOException {
+        return gamesReader.readValue(gamesBytes);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+
+        switch (format) {
+            case "smile":
+                return builder.factory(new SmileFactory()).build();
+            case "cbor":
+                return builder.factory(new CBORFactory()).build();
+            case "msgpack":
+                return builder.factory(new MessagePackFactory()).build();
+            default:
+                return builder.build();
+        }
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+}
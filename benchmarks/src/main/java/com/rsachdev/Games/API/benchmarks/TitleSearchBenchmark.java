@@ -0,0 +1,58 @@
+package com.rsachdev.Games.API.benchmarks;
+
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.GameTitle;
+import com.rsachdev.Games.API.service.TitleSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead queries against the title index: a short prefix matching many titles, a whole
+ * word followed by a prefix, and a query matching nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TitleSearchBenchmark {
+    private static final int LIMIT = 10;
+
+    @Param({"10000", "100000"})
+    public int games;
+
+    private TitleSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = Fixtures.titleSearchIndex(Fixtures.repository(games, 100));
+    }
+
+    @Benchmark
+    public List<GameTitle> shortPrefix() throws ServiceException {
+        return index.search("s", LIMIT);
+    }
+
+    @Benchmark
+    public List<GameTitle> wordAndPrefix() throws ServiceException {
+        return index.search("dragon que", LIMIT);
+    }
+
+    @Benchmark
+    public List<GameTitle> noMatch() throws ServiceException {
+        return index.search("zelda", LIMIT);
+    }
+}
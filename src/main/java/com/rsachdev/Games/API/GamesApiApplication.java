@@ -1,9 +1,18 @@
 package com.rsachdev.Games.API;
 
+import com.rsachdev.Games.API.config.ReactiveMongoConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * The reactive MongoDB auto-configuration is left to {@link ReactiveMongoConfig}, which applies it
+ * only when running as a reactive web application.
+ */
+@SpringBootApplication(exclude = {MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class,
+		MongoReactiveRepositoriesAutoConfiguration.class})
 public class GamesApiApplication {
 
 	public static final String APPLICATION_NAMESPACE = "Games API";
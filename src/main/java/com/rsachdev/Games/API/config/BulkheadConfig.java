@@ -0,0 +1,35 @@
+package com.rsachdev.Games.API.config;
+
+import com.rsachdev.Games.API.service.Bulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One bulkhead per dependency. MongoDB reads and writes are kept apart so that a backlog of
+ * writes cannot hold up GET requests, and the download of developers.json has its own.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead mongoReads(@Value("${games.bulkhead.mongo-reads.threads}") int threads,
+                               @Value("${games.bulkhead.mongo-reads.queue-capacity}") int queueCapacity,
+                               @Value("${games.bulkhead.mongo-reads.timeout-ms}") long timeoutMs) {
+        return new Bulkhead("mongo-reads", threads, queueCapacity, timeoutMs);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead mongoWrites(@Value("${games.bulkhead.mongo-writes.threads}") int threads,
+                                @Value("${games.bulkhead.mongo-writes.queue-capacity}") int queueCapacity,
+                                @Value("${games.bulkhead.mongo-writes.timeout-ms}") long timeoutMs) {
+        return new Bulkhead("mongo-writes", threads, queueCapacity, timeoutMs);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead s3Fetches(@Value("${games.bulkhead.s3.threads}") int threads,
+                              @Value("${games.bulkhead.s3.queue-capacity}") int queueCapacity,
+                              @Value("${games.bulkhead.s3.timeout-ms}") long timeoutMs) {
+        return new Bulkhead("s3", threads, queueCapacity, timeoutMs);
+    }
+}
@@ -0,0 +1,41 @@
+package com.rsachdev.Games.API.config;
+
+import com.rsachdev.Games.API.service.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One circuit breaker in front of each bulkhead, so that reads from secondaries are still tried
+ * while writes to an unavailable primary are refused.
+ */
+@Configuration
+public class CircuitBreakerConfig {
+
+    @Bean
+    public CircuitBreaker mongoReadsCircuit(@Value("${games.circuit.mongo-reads.failure-rate-threshold}") int failureRateThreshold,
+                                            @Value("${games.circuit.mongo-reads.window-size}") int windowSize,
+                                            @Value("${games.circuit.mongo-reads.minimum-calls}") int minimumCalls,
+                                            @Value("${games.circuit.mongo-reads.open-ms}") long openMs,
+                                            @Value("${games.circuit.mongo-reads.probe-calls}") int probeCalls) {
+        return new CircuitBreaker("mongo-reads", failureRateThreshold, windowSize, minimumCalls, openMs, probeCalls);
+    }
+
+    @Bean
+    public CircuitBreaker mongoWritesCircuit(@Value("${games.circuit.mongo-writes.failure-rate-threshold}") int failureRateThreshold,
+                                             @Value("${games.circuit.mongo-writes.window-size}") int windowSize,
+                                             @Value("${games.circuit.mongo-writes.minimum-calls}") int minimumCalls,
+                                             @Value("${games.circuit.mongo-writes.open-ms}") long openMs,
+                                             @Value("${games.circuit.mongo-writes.probe-calls}") int probeCalls) {
+        return new CircuitBreaker("mongo-writes", failureRateThreshold, windowSize, minimumCalls, openMs, probeCalls);
+    }
+
+    @Bean
+    public CircuitBreaker s3Circuit(@Value("${games.circuit.s3.failure-rate-threshold}") int failureRateThreshold,
+                                    @Value("${games.circuit.s3.window-size}") int windowSize,
+                                    @Value("${games.circuit.s3.minimum-calls}") int minimumCalls,
+                                    @Value("${games.circuit.s3.open-ms}") long openMs,
+                                    @Value("${games.circuit.s3.probe-calls}") int probeCalls) {
+        return new CircuitBreaker("s3", failureRateThreshold, windowSize, minimumCalls, openMs, probeCalls);
+    }
+}
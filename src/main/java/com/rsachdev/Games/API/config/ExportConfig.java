@@ -0,0 +1,25 @@
+package com.rsachdev.Games.API.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Gives GET /games/export its own time limit. A StreamingResponseBody carries no timeout of its
+ * own, so it falls back to the default for asynchronous requests, which is otherwise Tomcat's 30
+ * seconds and would cut off any export of more than a few hundred thousand games. Every other
+ * handler answers through a DeferredResult with its bulkhead's timeout, so only exports use it.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ExportConfig implements WebMvcConfigurer {
+    @Value("${games.export.timeout-ms}")
+    private long timeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
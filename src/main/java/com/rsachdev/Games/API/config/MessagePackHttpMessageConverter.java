@@ -0,0 +1,17 @@
+package com.rsachdev.Games.API.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+/**
+ * Reads and writes MessagePack with an ObjectMapper built on a MessagePackFactory, in the same
+ * way Spring's Smile and CBOR converters do for their formats.
+ */
+public class MessagePackHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+    public static final MediaType APPLICATION_MSGPACK = MediaType.parseMediaType("application/x-msgpack");
+
+    public MessagePackHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper, APPLICATION_MSGPACK);
+    }
+}
@@ -0,0 +1,28 @@
+package com.rsachdev.Games.API.config;
+
+import com.mongodb.MongoClientOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MongoCommandMetrics mongoCommandMetrics(MeterRegistry meterRegistry) {
+        return new MongoCommandMetrics(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientOptions mongoClientOptions(MongoCommandMetrics mongoCommandMetrics) {
+        return MongoClientOptions.builder()
+                .addCommandListener(mongoCommandMetrics)
+                .build();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MongoCommandMetrics mongoCommandMetrics) {
+        return settings -> settings.addCommandListener(mongoCommandMetrics);
+    }
+}
@@ -0,0 +1,62 @@
+package com.rsachdev.Games.API.config;
+
+import com.mongodb.ReadPreference;
+import com.rsachdev.Games.API.repository.GameRepository;
+import com.rsachdev.Games.API.repository.GameWriteConcerns;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits MongoDB access between two templates. mongoTemplate stays on the primary and serves
+ * writes, together with the reads that decide them. readMongoTemplate serves the reads behind
+ * GET requests with games.mongodb.read-preference.
+ *
+ * The repositories are enabled here rather than by Spring Boot, which would skip GameRepository
+ * once ReactiveMongoConfig has enabled the reactive repositories.
+ */
+@Configuration
+@EnableMongoRepositories(basePackageClasses = GameRepository.class)
+public class MongoConfig {
+    @Value("${games.mongodb.read-preference}")
+    private String readPreference;
+
+    @Value("${games.mongodb.max-staleness-seconds}")
+    private long maxStalenessSeconds;
+
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter, GameWriteConcerns gameWriteConcerns) {
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoDbFactory, mongoConverter);
+        mongoTemplate.setWriteConcernResolver(gameWriteConcerns);
+        return mongoTemplate;
+    }
+
+    @Bean
+    public MongoTemplate readMongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter) {
+        MongoTemplate readMongoTemplate = new MongoTemplate(mongoDbFactory, mongoConverter);
+        readMongoTemplate.setReadPreference(readPreference(readPreference, maxStalenessSeconds));
+        return readMongoTemplate;
+    }
+
+    /**
+     * A max staleness of zero or less leaves it unbounded. The primary cannot be stale, so it never has one.
+     */
+    static ReadPreference readPreference(String name, long maxStalenessSeconds) {
+        ReadPreference readPreference = ReadPreference.valueOf(name);
+
+        if (readPreference.equals(ReadPreference.primary()) || maxStalenessSeconds <= 0) {
+            return readPreference;
+        }
+
+        return ReadPreference.valueOf(name, Collections.emptyList(), maxStalenessSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,28 @@
+package com.rsachdev.Games.API.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.server.WebFilter;
+
+/**
+ * Marks every GET of games Vary: Accept in reactive mode, where WebFlux answers the same URL as
+ * JSON or Smile depending on the Accept header, so that a shared cache keeps the encodings apart.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEncodingConfig {
+
+    @Bean
+    public WebFilter varyOnAccept() {
+        return (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() == HttpMethod.GET
+                    && exchange.getRequest().getPath().pathWithinApplication().value().startsWith("/games")) {
+                exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+            return chain.filter(exchange);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.rsachdev.Games.API.config;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.rsachdev.Games.API.repository.ReactiveGameRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * The reactive MongoDB client, template and ReactiveGameRepository, which only the reactive web
+ * application uses. Spring Boot's own auto-configuration of them is excluded in
+ * GamesApiApplication, as it would otherwise open a second, idle connection pool in servlet mode.
+ * The template shares the converter of the blocking templates, so both map games the same way.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import(MongoReactiveAutoConfiguration.class)
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveGameRepository.class)
+public class ReactiveMongoConfig {
+    @Bean
+    public ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory(MongoClient reactiveStreamsMongoClient, MongoProperties properties) {
+        return new SimpleReactiveMongoDatabaseFactory(reactiveStreamsMongoClient, properties.getMongoClientDatabase());
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory, MongoConverter mongoConverter) {
+        return new ReactiveMongoTemplate(reactiveMongoDatabaseFactory, mongoConverter);
+    }
+}
@@ -0,0 +1,42 @@
+package com.rsachdev.Games.API.controller;
+
+import com.rsachdev.Games.API.GamesApiApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one record per request to the access logger, which logback-spring.xml hands to an
+ * asynchronous appender. Successful reads are sampled at games.access-log.read-sample-rate;
+ * writes and error responses are always recorded, at WARN for errors so that they are the last
+ * records dropped when the appender's queue fills.
+ */
+@Component
+public class AccessLog {
+    static final String LOGGER_NAME = GamesApiApplication.APPLICATION_NAMESPACE + ".access";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final String FORMAT = "method={} route={} id={} developer={} status={} latency_us={}";
+
+    @Value("${games.access-log.read-sample-rate:1.0}")
+    private double readSampleRate;
+
+    public void record(String method, String route, String gameId, String developer, int status, long elapsedNanos) {
+        if (status >= 400) {
+            ACCESS_LOG.warn(FORMAT, method, route, gameId, developer, status, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        } else if (ACCESS_LOG.isInfoEnabled() && sampled(method)) {
+            ACCESS_LOG.info(FORMAT, method, route, gameId, developer, status, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        }
+    }
+
+    boolean sampled(String method) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+        return readSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < readSampleRate;
+    }
+}
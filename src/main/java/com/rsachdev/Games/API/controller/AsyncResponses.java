@@ -0,0 +1,136 @@
+package com.rsachdev.Games.API.controller;
+
+import com.rsachdev.Games.API.exception.CircuitOpenException;
+import com.rsachdev.Games.API.service.Bulkhead;
+import com.rsachdev.Games.API.service.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs GameController handlers on the bulkhead for the MongoDB work they do, releasing the Tomcat
+ * request thread while they wait on it. A handler the bulkhead has no room for, or that has not
+ * answered within the bulkhead's timeout, is answered with 503. Batch writes get their own, longer,
+ * timeout, as a batch of thousands of games may rightly take far longer than a single write.
+ *
+ * Each bulkhead has a circuit breaker in front of it. Handlers that throw or answer 500 are
+ * failures, as are reads that time out, and while the circuit is open requests are answered with
+ * 503 at once rather than each waiting out the MongoDB driver's timeouts. A write that times out
+ * whilst running carries on, so it is judged by how it eventually ends rather than by its client
+ * having given up on it. One that times out before leaving the queue never reached MongoDB.
+ */
+@Component
+public class AsyncResponses {
+    @Autowired
+    @Qualifier("mongoReads")
+    private Bulkhead mongoReads;
+
+    @Autowired
+    @Qualifier("mongoWrites")
+    private Bulkhead mongoWrites;
+
+    @Autowired
+    @Qualifier("mongoReadsCircuit")
+    private CircuitBreaker mongoReadsCircuit;
+
+    @Autowired
+    @Qualifier("mongoWritesCircuit")
+    private CircuitBreaker mongoWritesCircuit;
+
+    @Autowired
+    private ErrorMetrics errorMetrics;
+
+    @Value("${games.bulkhead.mongo-writes.batch-timeout-ms}")
+    private long batchTimeoutMs;
+
+    public DeferredResult<ResponseEntity> read(Callable<ResponseEntity> handler) {
+        return respond(mongoReads, mongoReadsCircuit, mongoReads.getTimeoutMs(), true, handler);
+    }
+
+    public DeferredResult<ResponseEntity> write(Callable<ResponseEntity> handler) {
+        return respond(mongoWrites, mongoWritesCircuit, mongoWrites.getTimeoutMs(), false, handler);
+    }
+
+    public DeferredResult<ResponseEntity> writeBatch(Callable<ResponseEntity> handler) {
+        return respond(mongoWrites, mongoWritesCircuit, batchTimeoutMs, false, handler);
+    }
+
+    private DeferredResult<ResponseEntity> respond(Bulkhead bulkhead, CircuitBreaker circuit, long timeoutMs,
+                                                   boolean timeoutIsFailure, Callable<ResponseEntity> handler) {
+        DeferredResult<ResponseEntity> result = new DeferredResult<>(timeoutMs);
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture<ResponseEntity> response;
+
+        if (!circuit.tryAcquire()) {
+            errorMetrics.count(CircuitOpenException.class);
+            result.setResult(unavailable());
+            return result;
+        }
+
+        try {
+            response = bulkhead.submit(() -> {
+                started.set(true);
+                return handler.call();
+            });
+        } catch (RejectedExecutionException ree) {
+            circuit.onIgnored();
+            errorMetrics.count(ree);
+            result.setResult(unavailable());
+            return result;
+        }
+
+        // Whichever of the handler, the timeout or the end of the request comes first reports the outcome.
+        AtomicBoolean reported = new AtomicBoolean();
+
+        result.onTimeout(() -> {
+            errorMetrics.count(TimeoutException.class);
+            result.setResult(unavailable());
+            if (timeoutIsFailure || !started.get()) {
+                if (reported.compareAndSet(false, true)) {
+                    if (timeoutIsFailure) {
+                        circuit.onFailure();
+                    } else {
+                        circuit.onIgnored();
+                    }
+                }
+                response.cancel(false);
+            }
+        });
+        result.onCompletion(() -> {
+            // A write still running is left to report how it ends.
+            if ((timeoutIsFailure || !started.get()) && reported.compareAndSet(false, true)) {
+                circuit.onIgnored();
+            }
+        });
+        response.whenComplete((entity, e) -> {
+            if (reported.compareAndSet(false, true)) {
+                if (e == null && entity.getStatusCode() != HttpStatus.INTERNAL_SERVER_ERROR) {
+                    circuit.onSuccess();
+                } else {
+                    circuit.onFailure();
+                }
+            }
+            if (e == null) {
+                result.setResult(entity);
+            } else {
+                result.setErrorResult(e);
+            }
+        });
+
+        return result;
+    }
+
+    private static ResponseEntity unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+}
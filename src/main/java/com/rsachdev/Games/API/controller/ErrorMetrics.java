@@ -0,0 +1,32 @@
+package com.rsachdev.Games.API.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the exceptions the controllers turn into error responses as games.errors, tagged with
+ * the exception type. The controllers catch these exceptions themselves, so they never reach the
+ * exception tag of http.server.requests.
+ */
+@Component
+public class ErrorMetrics {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public void count(Throwable e) {
+        count(e.getClass());
+    }
+
+    /**
+     * Counts an outcome that was returned as a result rather than thrown.
+     */
+    public void count(Class<? extends Throwable> type) {
+        Counter.builder("games.errors")
+                .description("Exceptions mapped to error responses by the controllers")
+                .tag("exception", type.getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -2,147 +2,448 @@ package com.rsachdev.Games.API.controller;
 
 import com.mongodb.DuplicateKeyException;
 import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
+import com.rsachdev.Games.API.exception.RateLimitExceededException;
 import com.rsachdev.Games.API.exception.ResourceNotFoundException;
 import com.rsachdev.Games.API.exception.ServiceException;
 import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
 import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.BatchResult;
 import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.GameTitles;
 import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.service.DeveloperRateLimiter;
+import com.rsachdev.Games.API.service.GameBatchService;
+import com.rsachdev.Games.API.service.GameExportService;
 import com.rsachdev.Games.API.service.GameService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/games")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GameController {
     private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
     private static final String DEVELOPER_HEADER = "developer";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Value("${games.batch.chunk-size}")
+    private int batchChunkSize;
 
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private GameBatchService gameBatchService;
+
+    @Autowired
+    private GameExportService gameExportService;
+
+    @Autowired
+    private ErrorMetrics errorMetrics;
+
+    @Autowired
+    private AsyncResponses asyncResponses;
+
+    @Autowired
+    private DeveloperRateLimiter developerRateLimiter;
+
+    @Autowired
+    private IdempotentWrites idempotentWrites;
+
     @GetMapping("/{gameId}")
-    public ResponseEntity fetch(@PathVariable String gameId) {
-        Game game;
+    public DeferredResult<ResponseEntity> fetch(@PathVariable String gameId, @RequestParam(required=false, value="fields") String fields,
+                                                @RequestHeader(value="If-None-Match", required=false) String ifNoneMatch) {
+        return asyncResponses.read(() -> fetchGame(gameId, fields, ifNoneMatch));
+    }
 
+    private ResponseEntity fetchGame(String gameId, String fields, String ifNoneMatch) {
+        Optional<Game> game;
+
+        // Probes for ids that do not exist are common, so a miss is returned rather than thrown.
         try {
-            LOG.info("Getting game with id: " + gameId);
-            game = gameService.getById(gameId);
+            if (ifNoneMatch != null) {
+                Long version = gameService.findVersion(gameId).orElse(null);
+                if (version != null && VersionTags.matches(ifNoneMatch, VersionTags.format(version))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(VersionTags.format(version)).build();
+                }
+            }
+
+            game = gameService.findById(gameId, GameFields.of(fields));
         } catch (ServiceException de) {
-            LOG.error("Error when retrieving game with id: " + gameId, de);
+            errorMetrics.count(de);
+            LOG.error("Error when retrieving game with id: {}", gameId, de);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } catch (ResourceNotFoundException rnfe) {
+        } catch (ValidationException ve) {
+            errorMetrics.count(ve);
+            LOG.error(ve.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
+        }
+
+        if (!game.isPresent()) {
+            errorMetrics.count(ResourceNotFoundException.class);
             return ResponseEntity.notFound().build();
         }
 
-        LOG.info("Successfully retrieved game with id: " + gameId);
-        return ResponseEntity.ok(game);
+        if (game.get().getVersion() == null) {
+            return ResponseEntity.ok(game.get());
+        }
+        return ResponseEntity.ok().eTag(VersionTags.format(game.get().getVersion())).body(game.get());
     }
 
     @PostMapping
-    public ResponseEntity create(@Valid @RequestBody Game game, HttpServletRequest request) {
-        Game createdGame;
+    public DeferredResult<ResponseEntity> create(@Valid @RequestBody Game game, HttpServletRequest request) {
         String developer = request.getHeader(DEVELOPER_HEADER);
+        String requestUri = request.getRequestURI();
+
+        return idempotentWrite(request, game, developer, 1, 1, asyncResponses::write, gameIds -> createGame(game, developer, requestUri, gameIds));
+    }
+
+    /**
+     * Creates the game, under the id reserved by its Idempotency-Key if it has one. A reserved id
+     * that is already taken was created by an earlier attempt at the same request, which is then
+     * answered as it would have been.
+     */
+    private ResponseEntity createGame(Game game, String developer, String requestUri, List<String> gameIds) {
+        Game createdGame;
 
         try {
-            LOG.info("Creating game: " + game.getTitle());
-            createdGame = gameService.createGame(game, developer);
+            createdGame = gameIds == null ? gameService.createGame(game, developer) : gameService.createGame(game, developer, gameIds.get(0));
         } catch (ServiceException se) {
-            LOG.error("Error when creating game with title: " + game.getTitle(), se);
+            errorMetrics.count(se);
+            LOG.error("Error when creating game with title: {}", game.getTitle(), se);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } catch (DuplicateKeyException dke) {
-            LOG.error("Id already exists - try creating " + game.getTitle() + " again", dke);
+        } catch (DuplicateKeyException | org.springframework.dao.DuplicateKeyException dke) {
+            // The repository's insert is translated into Spring's exception, a batched one is not.
+            if (gameIds != null) {
+                LOG.info("Game {} was created by an earlier attempt with the same Idempotency-Key", gameIds.get(0));
+                return ResponseEntity.created(URI.create(requestUri + "/" + gameIds.get(0))).build();
+            }
+            errorMetrics.count(dke);
+            LOG.error("Id already exists - try creating {} again", game.getTitle(), dke);
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (UnauthorisedDeveloperException ude) {
-            LOG.error("Developer " + developer + " not authorised to create " + game.getTitle(), ude);
+            errorMetrics.count(ude);
+            LOG.error("Developer {} not authorised to create {}", developer, game.getTitle(), ude);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } catch (ValidationException ve) {
+            errorMetrics.count(ve);
             LOG.error(ve.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
         }
 
-        String locationString = request.getRequestURI() + "/" + createdGame.getId();
+        String locationString = requestUri + "/" + createdGame.getId();
         URI location = URI.create(locationString);
 
-        LOG.info("Game: " + createdGame.getTitle() + " successfully created");
         return ResponseEntity.created(location).build();
     }
 
+    @PostMapping("/batch")
+    public DeferredResult<ResponseEntity> createBatch(@RequestBody List<Game> games, HttpServletRequest request) {
+        String developer = request.getHeader(DEVELOPER_HEADER);
+        return idempotentWrite(request, games, developer, batchWrites(games.size()), games.size(), asyncResponses::writeBatch,
+                gameIds -> createGames(games, developer, gameIds));
+    }
+
+    private ResponseEntity createGames(List<Game> games, String developer, List<String> gameIds) {
+        BatchResult result;
+
+        try {
+            result = gameIds == null ? gameBatchService.createGames(games, developer) : gameBatchService.createGames(games, developer, gameIds);
+        } catch (ServiceException se) {
+            errorMetrics.count(se);
+            LOG.error("Error when creating batch of games", se);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (UnauthorisedDeveloperException ude) {
+            errorMetrics.count(ude);
+            LOG.error("Developer {} not authorised to create games", developer, ude);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (ValidationException ve) {
+            errorMetrics.count(ve);
+            LOG.error(ve.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
+        }
+
+        return ResponseEntity.ok(result);
+    }
+
+    @PutMapping("/batch")
+    public DeferredResult<ResponseEntity> updateBatch(@RequestBody List<Game> games, HttpServletRequest request) {
+        String developer = request.getHeader(DEVELOPER_HEADER);
+        return write(developer, batchWrites(games.size()), asyncResponses::writeBatch, () -> updateGames(games, developer));
+    }
+
+    private ResponseEntity updateGames(List<Game> games, String developer) {
+        BatchResult result;
+
+        try {
+            result = gameBatchService.updateGames(games, developer);
+        } catch (UnauthorisedDeveloperException ude) {
+            errorMetrics.count(ude);
+            LOG.error("Developer {} not authorised to update games", developer, ude);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (ValidationException ve) {
+            errorMetrics.count(ve);
+            LOG.error(ve.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
+        }
+
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
-    public ResponseEntity listAll(@RequestParam(required=false, value="start-index", defaultValue="0") String startIndex,
-                                  @RequestParam(required=false, value="items-per-page", defaultValue="10") String itemsPerPage) {
+    public DeferredResult<ResponseEntity> listAll(@RequestParam(required=false, value="start-index", defaultValue="0") String startIndex,
+                                                  @RequestParam(required=false, value="items-per-page", defaultValue="10") String itemsPerPage,
+                                                  @RequestParam(required=false, value="cursor") String cursor,
+                                                  @RequestParam(required=false, value="include-total", defaultValue="true") String includeTotal,
+                                                  @RequestParam(required=false, value="developer") String developer,
+                                                  @RequestParam(required=false, value="genre") List<String> genres,
+                                                  @RequestParam(required=false, value="genre-match", defaultValue="any") String genreMatch,
+                                                  @RequestParam(required=false, value="released-after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedAfter,
+                                                  @RequestParam(required=false, value="released-before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedBefore,
+                                                  @RequestParam(required=false, value="fields") String fields,
+                                                  @RequestHeader(value="If-None-Match", required=false) String ifNoneMatch) {
+        return asyncResponses.read(() -> listAllGames(startIndex, itemsPerPage, cursor, includeTotal, developer, genres,
+                genreMatch, releasedAfter, releasedBefore, fields, ifNoneMatch));
+    }
+
+    private ResponseEntity listAllGames(String startIndex, String itemsPerPage, String cursor, String includeTotal,
+                                        String developer, List<String> genres, String genreMatch, LocalDate releasedAfter,
+                                        LocalDate releasedBefore, String fields, String ifNoneMatch) {
         Games games;
 
         try {
-            LOG.info("Retrieving all games");
-            games = gameService.listAllGames(startIndex, itemsPerPage);
+            GameFilter filter = GameFilter.of(developer, genres, genreMatch, releasedAfter, releasedBefore);
+            GameFields gameFields = GameFields.of(fields);
+
+            games = listGames(filter, gameFields, startIndex, itemsPerPage, cursor, includeTotal);
         } catch (ServiceException de) {
+            errorMetrics.count(de);
             LOG.error("Error when retrieving all games", de);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (ValidationException ve) {
+            errorMetrics.count(ve);
+            LOG.error(ve.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
         }
 
-        if (games.getTotalResults() < 1 || games.getItems().size() < 1) {
-            LOG.error("No games found");
+        // An estimated total may lag behind the first inserts, so only an exact one can rule out a page.
+        if ((Boolean.TRUE.equals(games.getTotalResultsExact()) && games.getTotalResults() < 1) || games.getItems().isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        LOG.info("Successfully retrieved list of all games");
-        return ResponseEntity.ok(games);
+        // Every projection includes the ids and versions the tag is built from, so the page
+        // read to answer the request is also the one its tag is checked against.
+        String tag = VersionTags.format(games);
+        if (ifNoneMatch != null && VersionTags.matches(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+        }
+
+        return ResponseEntity.ok().eTag(tag).body(games);
+    }
+
+    private Games listGames(GameFilter filter, GameFields fields, String startIndex, String itemsPerPage,
+                            String cursor, String includeTotal) throws ServiceException, ValidationException {
+        if (cursor == null) {
+            return gameService.listAllGames(filter, fields, startIndex, itemsPerPage, includeTotal);
+        }
+        return gameService.listGamesAfter(filter, fields, cursor, itemsPerPage);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity export(@RequestParam(required=false, value="developer") String developer,
+                                 @RequestParam(required=false, value="genre") List<String> genres,
+                                 @RequestParam(required=false, value="genre-match", defaultValue="any") String genreMatch,
+                                 @RequestParam(required=false, value="released-after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedAfter,
+                                 @RequestParam(required=false, value="released-before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedBefore,
+                                 @RequestParam(required=false, value="after") String after) {
+        GameFilter filter;
+
+        try {
+            filter = GameFilter.of(developer, genres, genreMatch, releasedAfter, releasedBefore);
+        } catch (ValidationException ve) {
+            errorMetrics.count(ve);
+            LOG.error(ve.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
+        }
+
+        StreamingResponseBody body = outputStream -> gameExportService.exportGames(filter, after, outputStream);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
+    public DeferredResult<ResponseEntity> search(@RequestParam(required=false, value="q") String query,
+                                                 @RequestParam(required=false, value="limit", defaultValue="10") String limit) {
+        return asyncResponses.read(() -> searchTitles(query, limit));
+    }
+
+    private ResponseEntity searchTitles(String query, String limit) {
+        GameTitles titles;
+
+        try {
+            titles = gameService.searchTitles(query, limit);
+        } catch (ServiceException se) {
+            errorMetrics.count(se);
+            LOG.error("Title search unavailable", se);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (ValidationException ve) {
+            errorMetrics.count(ve);
+            LOG.error(ve.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
+        }
+
+        return ResponseEntity.ok(titles);
     }
 
     @PutMapping("/{gameId}")
-    public ResponseEntity update(@Valid @RequestBody Game game, @PathVariable String gameId, HttpServletRequest request) {
+    public DeferredResult<ResponseEntity> update(@Valid @RequestBody Game game, @PathVariable String gameId,
+                                                 @RequestHeader(value="If-Match", required=false) String ifMatch, HttpServletRequest request) {
         String developer = request.getHeader(DEVELOPER_HEADER);
+        return write(developer, 1, asyncResponses::write, () -> updateGame(game, gameId, ifMatch, developer));
+    }
+
+    private ResponseEntity updateGame(Game game, String gameId, String ifMatch, String developer) {
+        Game updatedGame;
 
         try {
-            LOG.info("Updating game with id: " + gameId);
-            gameService.updateGame(game, gameId, developer);
+            updatedGame = gameService.updateGame(game, gameId, developer, VersionTags.parse(ifMatch));
         } catch (UnauthorisedDeveloperException e) {
-            LOG.error("Developer " + developer + " not authorised to update game with id: " + gameId);
+            errorMetrics.count(e);
+            LOG.error("Developer {} not authorised to update game with id: {}", developer, gameId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } catch (ServiceException e) {
-            LOG.error("Error updating game with id: " + gameId);
+            errorMetrics.count(e);
+            LOG.error("Error updating game with id: {}", gameId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         } catch (ResourceNotFoundException rnfe) {
-            LOG.error("Could not update. Game with id: " + gameId + " not found");
+            errorMetrics.count(rnfe);
+            LOG.error("Could not update. Game with id: {} not found", gameId);
             return ResponseEntity.notFound().build();
         } catch (ValidationException ve) {
+            errorMetrics.count(ve);
             LOG.error(ve.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage());
+        } catch (PreconditionFailedException pfe) {
+            errorMetrics.count(pfe);
+            LOG.error("Could not update. {}", pfe.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
 
-        LOG.info("Successfully updated game with id: " + gameId);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.noContent().eTag(VersionTags.format(updatedGame.getVersion())).build();
     }
 
     @DeleteMapping("/{gameId}")
-    public ResponseEntity delete(@PathVariable String gameId, HttpServletRequest request) {
+    public DeferredResult<ResponseEntity> delete(@PathVariable String gameId, @RequestHeader(value="If-Match", required=false) String ifMatch,
+                                                 HttpServletRequest request) {
         String developer = request.getHeader(DEVELOPER_HEADER);
+        return write(developer, 1, asyncResponses::write, () -> deleteGame(gameId, ifMatch, developer));
+    }
+
+    private ResponseEntity deleteGame(String gameId, String ifMatch, String developer) {
 
         try {
-            LOG.info("Deleting game with id: " + gameId);
-            gameService.deleteGame(gameId, developer);
+            gameService.deleteGame(gameId, developer, VersionTags.parse(ifMatch));
         } catch (ResourceNotFoundException e) {
-            LOG.error("Could not delete. Game with id: " + " not found");
+            errorMetrics.count(e);
+            LOG.error("Could not delete. Game with id: {} not found", gameId);
             return ResponseEntity.notFound().build();
         } catch (ServiceException e) {
-            LOG.error("Error deleting game with id: " + gameId);
+            errorMetrics.count(e);
+            LOG.error("Error deleting game with id: {}", gameId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         } catch (UnauthorisedDeveloperException e) {
-            LOG.error("Developer " + developer + " not authorised to delete game with id: " + gameId);
+            errorMetrics.count(e);
+            LOG.error("Developer {} not authorised to delete game with id: {}", developer, gameId);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (PreconditionFailedException pfe) {
+            errorMetrics.count(pfe);
+            LOG.error("Could not delete. {}", pfe.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
 
-        LOG.info("Successfully deleted game with id: " + gameId);
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Runs a POST that may carry an Idempotency-Key. A retry this instance already holds the
+     * response for is answered at once, before it is rate limited or takes a write thread. The
+     * handler is given the game ids reserved by the key, or null if there is none.
+     */
+    private DeferredResult<ResponseEntity> idempotentWrite(HttpServletRequest request, Object body, String developer, int writes,
+                                                           int games, Function<Callable<ResponseEntity>, DeferredResult<ResponseEntity>> async,
+                                                           Function<List<String>, ResponseEntity> handler) {
+        String key = request.getHeader(IdempotentWrites.IDEMPOTENCY_KEY_HEADER);
+        if (key == null) {
+            return write(developer, writes, async, () -> handler.apply(null));
+        }
+
+        String fingerprint = idempotentWrites.fingerprint(request, body);
+        Optional<ResponseEntity> replayed = idempotentWrites.replay(developer, key, fingerprint);
+        if (replayed.isPresent()) {
+            return completed(replayed.get());
+        }
+
+        return write(developer, writes, async, () -> idempotentWrites.run(developer, key, fingerprint, games, handler));
+    }
+
+    /**
+     * A batch is charged one write per chunk, as each chunk goes to MongoDB as a single bulk write.
+     * A batch of games.batch.max-size games then fits well within the default burst.
+     */
+    private int batchWrites(int games) {
+        return Math.max(1, (games + batchChunkSize - 1) / batchChunkSize);
+    }
+
+    /**
+     * Charges the developer for their writes before the handler takes a write thread, so a
+     * developer over their limit is turned away without reaching MongoDB. A request costing more
+     * than the developer's burst is refused outright, as no wait would let it through. The handler
+     * is then run by async, which is AsyncResponses' write or, for batches, writeBatch.
+     */
+    private DeferredResult<ResponseEntity> write(String developer, int writes,
+                                                 Function<Callable<ResponseEntity>, DeferredResult<ResponseEntity>> async,
+                                                 Callable<ResponseEntity> handler) {
+        try {
+            developerRateLimiter.acquire(developer, writes);
+        } catch (RateLimitExceededException rle) {
+            errorMetrics.count(rle);
+            return completed(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(rle.getRetryAfterSeconds()))
+                    .build());
+        } catch (ValidationException ve) {
+            errorMetrics.count(ve);
+            LOG.error(ve.getMessage());
+            return completed(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ve.getMessage()));
+        }
+
+        return async.apply(handler);
+    }
+
+    private static DeferredResult<ResponseEntity> completed(ResponseEntity response) {
+        DeferredResult<ResponseEntity> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
 }
@@ -0,0 +1,166 @@
+package com.rsachdev.Games.API.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.BatchResult;
+import com.rsachdev.Games.API.model.IdempotencyRecord;
+import com.rsachdev.Games.API.service.IdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Makes POST writes that carry an Idempotency-Key safe to retry. The first request with a key runs
+ * and, if it succeeds, its response is stored against the developer and key. Later requests with
+ * the same key get that response back with an Idempotent-Replayed header instead of running again,
+ * while one made whilst the first is still running is answered with 409 and one with a different
+ * body or endpoint with 422. A key whose write is refused with a client error is released, so the
+ * request may be corrected and retried. One whose write fails otherwise is kept, with the game ids
+ * it reserved, so a retry cannot create the same games again under new ids.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class IdempotentWrites {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ErrorMetrics errorMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Identifies a request by its method, path and body, so that a key reused for a different
+     * request is recognised.
+     */
+    public String fingerprint(HttpServletRequest request, Object body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(body));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request to " + request.getRequestURI(), e);
+        }
+    }
+
+    /**
+     * The response to give without running the write, if it can be decided from memory: a 400 for
+     * an unusable key, or the reply to a key this instance knows has completed.
+     */
+    public Optional<ResponseEntity> replay(String developer, String key, String fingerprint) {
+        if (key.trim().isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            errorMetrics.count(ValidationException.class);
+            return Optional.of(ResponseEntity.badRequest()
+                    .body(IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        return idempotencyStore.getCompleted(id(developer, key)).map(record -> reply(record, fingerprint));
+    }
+
+    /**
+     * Runs the write unless the key has already been used, in which case the earlier outcome is
+     * replied with. The write is given the ids to create its games with, one per game.
+     */
+    public ResponseEntity run(String developer, String key, String fingerprint, int games,
+                              Function<List<String>, ResponseEntity> write) {
+        String id = id(developer, key);
+        List<String> gameIds = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            gameIds.add(UUID.randomUUID().toString());
+        }
+
+        IdempotencyStore.Claim claim;
+        try {
+            claim = idempotencyStore.claim(id, fingerprint, gameIds);
+        } catch (ServiceException se) {
+            errorMetrics.count(se);
+            LOG.error("Error when claiming idempotency key {}", id, se);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+
+        if (!claim.isOwned()) {
+            return reply(claim.getRecord(), fingerprint);
+        }
+
+        ResponseEntity response;
+        try {
+            response = write.apply(claim.getRecord().getGameIds());
+        } catch (RuntimeException e) {
+            idempotencyStore.abandon(id);
+            throw e;
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            URI location = response.getHeaders().getLocation();
+            BatchResult batchResult = response.getBody() instanceof BatchResult ? (BatchResult) response.getBody() : null;
+            idempotencyStore.complete(id, fingerprint, response.getStatusCodeValue(),
+                    location == null ? null : location.toString(), batchResult);
+        } else if (response.getStatusCode().is4xxClientError()) {
+            idempotencyStore.release(id);
+        } else {
+            idempotencyStore.abandon(id);
+        }
+
+        return response;
+    }
+
+    private ResponseEntity reply(IdempotencyRecord record, String fingerprint) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            errorMetrics.count(ValidationException.class);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(IDEMPOTENCY_KEY_HEADER + " has already been used for a different request");
+        }
+        if (!record.isCompleted()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+        }
+
+        Counter.builder("games.idempotency.replayed")
+                .description("Writes answered with the stored response to an earlier request with the same Idempotency-Key")
+                .register(meterRegistry)
+                .increment();
+
+        ResponseEntity.BodyBuilder replayed = ResponseEntity.status(record.getStatus()).header(REPLAYED_HEADER, "true");
+        if (record.getLocation() != null) {
+            replayed.header(HttpHeaders.LOCATION, record.getLocation());
+        }
+        return record.getBatchResult() == null ? replayed.build() : replayed.body(record.getBatchResult());
+    }
+
+    private static String id(String developer, String key) {
+        return (developer == null ? "" : developer.trim().toLowerCase(Locale.ROOT)) + ":" + key;
+    }
+}
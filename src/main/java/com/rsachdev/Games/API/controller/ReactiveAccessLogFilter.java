@@ -0,0 +1,48 @@
+package com.rsachdev.Games.API.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+
+/**
+ * Reactive counterpart of AccessLogFilter, recording each exchange in the AccessLog when it completes.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccessLogFilter implements WebFilter {
+    @Autowired
+    private AccessLog accessLog;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+
+        return chain.filter(exchange).doFinally(signal -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpStatus status = signal == SignalType.ON_ERROR ? HttpStatus.INTERNAL_SERVER_ERROR : exchange.getResponse().getStatusCode();
+            accessLog.record(request.getMethodValue(), route(exchange), gameId(exchange), request.getHeaders().getFirst("developer"),
+                    status == null ? HttpStatus.OK.value() : status.value(), System.nanoTime() - start);
+        });
+    }
+
+    private String route(ServerWebExchange exchange) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? exchange.getRequest().getPath().value() : pattern.getPatternString();
+    }
+
+    private String gameId(ServerWebExchange exchange) {
+        Map<String, String> variables = exchange.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables == null ? null : variables.get("gameId");
+    }
+}
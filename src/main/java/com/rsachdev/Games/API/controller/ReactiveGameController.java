@@ -0,0 +1,221 @@
+package com.rsachdev.Games.API.controller;
+
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
+import com.rsachdev.Games.API.exception.ResourceNotFoundException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.service.ReactiveGameService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Serves the same routes and status codes as {@link GameController} when the application is
+ * started with spring.main.web-application-type=reactive.
+ */
+@RestController
+@RequestMapping("/games")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGameController {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+    private static final String DEVELOPER_HEADER = "developer";
+
+    @Autowired
+    private ReactiveGameService reactiveGameService;
+
+    @Autowired
+    private ErrorMetrics errorMetrics;
+
+    @GetMapping("/{gameId}")
+    public Mono<ResponseEntity> fetch(@PathVariable String gameId, @RequestParam(required=false, value="fields") String fields,
+                                      @RequestHeader(value="If-None-Match", required=false) String ifNoneMatch) {
+        GameFields gameFields;
+
+        try {
+            gameFields = GameFields.of(fields);
+        } catch (ValidationException ve) {
+            return Mono.just(failure(ve, null));
+        }
+
+        Mono<ResponseEntity> response = reactiveGameService.getById(gameId, gameFields)
+                .map(this::found)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+
+        if (ifNoneMatch != null) {
+            Mono<ResponseEntity> modified = response;
+            response = reactiveGameService.getById(gameId, GameFields.VERSION)
+                    .filter(current -> current.getVersion() != null && VersionTags.matches(ifNoneMatch, VersionTags.format(current.getVersion())))
+                    .map(current -> notModified(VersionTags.format(current.getVersion())))
+                    .switchIfEmpty(modified);
+        }
+
+        return response.onErrorResume(e -> Mono.just(failure(e, "Error when retrieving game with id: " + gameId)));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity> create(@Valid @RequestBody Game game, @RequestHeader(value=DEVELOPER_HEADER, required=false) String developer,
+                                       ServerHttpRequest request) {
+        return reactiveGameService.createGame(game, developer)
+                .map(createdGame -> {
+                    URI location = URI.create(request.getURI().getPath() + "/" + createdGame.getId());
+                    return (ResponseEntity) ResponseEntity.created(location).build();
+                })
+                .onErrorResume(e -> Mono.just(failure(e, "Error when creating game with title: " + game.getTitle())));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity> listAll(@RequestParam(required=false, value="start-index", defaultValue="0") String startIndex,
+                                        @RequestParam(required=false, value="items-per-page", defaultValue="10") String itemsPerPage,
+                                        @RequestParam(required=false, value="cursor") String cursor,
+                                        @RequestParam(required=false, value="include-total", defaultValue="true") String includeTotal,
+                                        @RequestParam(required=false, value="developer") String developer,
+                                        @RequestParam(required=false, value="genre") List<String> genres,
+                                        @RequestParam(required=false, value="genre-match", defaultValue="any") String genreMatch,
+                                        @RequestParam(required=false, value="released-after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedAfter,
+                                        @RequestParam(required=false, value="released-before") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedBefore,
+                                        @RequestParam(required=false, value="fields") String fields,
+                                        @RequestHeader(value="If-None-Match", required=false) String ifNoneMatch) {
+        GameFilter filter;
+        GameFields gameFields;
+
+        try {
+            filter = GameFilter.of(developer, genres, genreMatch, releasedAfter, releasedBefore);
+            gameFields = GameFields.of(fields);
+        } catch (ValidationException ve) {
+            return Mono.just(failure(ve, null));
+        }
+
+        return listGames(filter, gameFields, startIndex, itemsPerPage, cursor, includeTotal)
+                .map(games -> listed(games, ifNoneMatch))
+                .onErrorResume(e -> Mono.just(failure(e, "Error when retrieving all games")));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity> search(@RequestParam(required=false, value="q") String query,
+                                       @RequestParam(required=false, value="limit", defaultValue="10") String limit) {
+        return reactiveGameService.searchTitles(query, limit)
+                .map(titles -> (ResponseEntity) ResponseEntity.ok(titles))
+                .doOnError(ServiceException.class, errorMetrics::count)
+                .onErrorResume(e -> Mono.just(e instanceof ServiceException
+                        ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()
+                        : failure(e, "Error when searching titles for: " + query)));
+    }
+
+    @PutMapping("/{gameId}")
+    public Mono<ResponseEntity> update(@Valid @RequestBody Game game, @PathVariable String gameId,
+                                       @RequestHeader(value="If-Match", required=false) String ifMatch,
+                                       @RequestHeader(value=DEVELOPER_HEADER, required=false) String developer) {
+        Long expectedVersion;
+
+        try {
+            expectedVersion = VersionTags.parse(ifMatch);
+        } catch (PreconditionFailedException pfe) {
+            return Mono.just(failure(pfe, null));
+        }
+
+        return reactiveGameService.updateGame(game, gameId, developer, expectedVersion)
+                .map(updatedGame -> (ResponseEntity) ResponseEntity.noContent().eTag(VersionTags.format(updatedGame.getVersion())).build())
+                .onErrorResume(e -> Mono.just(failure(e, "Error updating game with id: " + gameId)));
+    }
+
+    @DeleteMapping("/{gameId}")
+    public Mono<ResponseEntity> delete(@PathVariable String gameId, @RequestHeader(value="If-Match", required=false) String ifMatch,
+                                       @RequestHeader(value=DEVELOPER_HEADER, required=false) String developer) {
+        Long expectedVersion;
+
+        try {
+            expectedVersion = VersionTags.parse(ifMatch);
+        } catch (PreconditionFailedException pfe) {
+            return Mono.just(failure(pfe, null));
+        }
+
+        return reactiveGameService.deleteGame(gameId, developer, expectedVersion)
+                .then(Mono.fromCallable(() -> (ResponseEntity) ResponseEntity.noContent().build()))
+                .onErrorResume(e -> Mono.just(failure(e, "Error deleting game with id: " + gameId)));
+    }
+
+    private Mono<Games> listGames(GameFilter filter, GameFields fields, String startIndex, String itemsPerPage,
+                                  String cursor, String includeTotal) {
+        return cursor == null
+                ? reactiveGameService.listAllGames(filter, fields, startIndex, itemsPerPage, includeTotal)
+                : reactiveGameService.listGamesAfter(filter, fields, cursor, itemsPerPage);
+    }
+
+    private ResponseEntity notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+    }
+
+    private ResponseEntity found(Game game) {
+        if (game.getVersion() == null) {
+            return ResponseEntity.ok(game);
+        }
+        return ResponseEntity.ok().eTag(VersionTags.format(game.getVersion())).body(game);
+    }
+
+    private ResponseEntity listed(Games games, String ifNoneMatch) {
+        // An estimated total may lag behind the first inserts, so only an exact one can rule out a page.
+        if ((Boolean.TRUE.equals(games.getTotalResultsExact()) && games.getTotalResults() < 1) || games.getItems().isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Every projection includes the ids and versions the tag is built from, so the page
+        // read to answer the request is also the one its tag is checked against.
+        String tag = VersionTags.format(games);
+        if (ifNoneMatch != null && VersionTags.matches(ifNoneMatch, tag)) {
+            return notModified(tag);
+        }
+
+        return ResponseEntity.ok().eTag(tag).body(games);
+    }
+
+    private ResponseEntity failure(Throwable e, String errorMessage) {
+        errorMetrics.count(e);
+
+        if (e instanceof ValidationException) {
+            LOG.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+
+        if (e instanceof UnauthorisedDeveloperException) {
+            LOG.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (e instanceof ResourceNotFoundException) {
+            LOG.error(e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+
+        if (e instanceof PreconditionFailedException) {
+            LOG.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        if (e instanceof DuplicateKeyException) {
+            LOG.error("Id already exists", e);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        LOG.error(errorMessage, e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+}
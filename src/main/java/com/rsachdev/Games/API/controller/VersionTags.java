@@ -0,0 +1,75 @@
+package com.rsachdev.Games.API.controller;
+
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.Games;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts between game versions and the strong entity tags sent in ETag, If-Match and
+ * If-None-Match headers.
+ */
+final class VersionTags {
+
+    private VersionTags() {
+    }
+
+    static String format(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Tags a page by the id and version of every game on it, together with its total and next
+     * cursor, so any create, update or delete that changes what the page shows changes its tag.
+     */
+    static String format(Games games) {
+        StringBuilder content = new StringBuilder();
+
+        for (Game game : games.getItems()) {
+            content.append(game.getId()).append(':').append(game.getVersion()).append(';');
+        }
+        content.append(games.getTotalResults()).append(';').append(games.getTotalResultsExact()).append(';').append(games.getNext());
+
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Returns whether an If-None-Match header names the tag. Weak tags are compared by their value.
+     */
+    static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || tag == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || (value.startsWith("W/") ? value.substring(2) : value).equals(tag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the version named by an If-Match header, or null when any version is acceptable.
+     */
+    static Long parse(String ifMatch) throws PreconditionFailedException {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a strong entity tag: " + ifMatch);
+        }
+
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException nfe) {
+            throw new PreconditionFailedException("If-Match does not match any version: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.rsachdev.Games.API.exception;
+
+/**
+ * Thrown instead of calling a dependency whose circuit breaker is open. Like the exceptions for
+ * expected outcomes, no stack trace is captured, as it is thrown for every call while the circuit
+ * stays open.
+ */
+public class CircuitOpenException extends ServiceException {
+
+    public CircuitOpenException(String message) {
+        super(message, null, false, false);
+    }
+}
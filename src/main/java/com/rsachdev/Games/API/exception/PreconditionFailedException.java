@@ -0,0 +1,8 @@
+package com.rsachdev.Games.API.exception;
+
+public class PreconditionFailedException extends Exception {
+
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,9 +1,12 @@
 package com.rsachdev.Games.API.exception;
 
-
+/**
+ * Like the other exceptions for expected outcomes, this is mapped straight to a status code, so
+ * no stack trace is captured when it is created.
+ */
 public class ResourceNotFoundException extends Exception {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
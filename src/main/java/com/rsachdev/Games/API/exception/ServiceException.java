@@ -9,4 +9,8 @@ public class ServiceException extends Exception {
     public ServiceException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    protected ServiceException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
 }
@@ -3,6 +3,6 @@ package com.rsachdev.Games.API.exception;
 public class UnauthorisedDeveloperException extends Exception {
 
     public UnauthorisedDeveloperException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
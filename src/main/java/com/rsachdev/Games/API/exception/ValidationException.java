@@ -2,6 +2,6 @@ package com.rsachdev.Games.API.exception;
 
 public class ValidationException extends Exception {
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,73 @@
+package com.rsachdev.Games.API.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    public enum Status {
+        @JsonProperty("created") CREATED,
+        @JsonProperty("updated") UPDATED,
+        @JsonProperty("invalid") INVALID,
+        @JsonProperty("unauthorised") UNAUTHORISED,
+        @JsonProperty("not_found") NOT_FOUND,
+        @JsonProperty("duplicate") DUPLICATE,
+        @JsonProperty("error") ERROR
+    }
+
+    @JsonProperty("index")
+    private int index;
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("status")
+    private Status status;
+
+    @JsonProperty("errors")
+    private List<String> errors;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, String id, Status status) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
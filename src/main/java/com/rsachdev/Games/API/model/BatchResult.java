@@ -0,0 +1,26 @@
+package com.rsachdev.Games.API.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class BatchResult {
+
+    @JsonProperty("items")
+    private List<BatchItemResult> items;
+
+    public BatchResult() {
+    }
+
+    public BatchResult(List<BatchItemResult> items) {
+        this.items = items;
+    }
+
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BatchItemResult> items) {
+        this.items = items;
+    }
+}
@@ -1,7 +1,10 @@
 package com.rsachdev.Games.API.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -11,6 +14,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Document(collection="games")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Game {
     @Id
     @Field("_id")
@@ -21,6 +25,7 @@ public class Game {
     @JsonProperty("title")
     private String title;
 
+    @Indexed(name = "release_date")
     @Field("release_date")
     @JsonProperty("release_date")
     private LocalDate releaseDate;
@@ -33,6 +38,11 @@ public class Game {
     @JsonProperty("developer")
     private String developer;
 
+    @Version
+    @Field("version")
+    @JsonProperty(value = "version", access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -72,4 +82,12 @@ public class Game {
     public void setDeveloper(String developer) {
         this.developer = developer;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
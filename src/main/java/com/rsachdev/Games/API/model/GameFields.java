@@ -0,0 +1,82 @@
+package com.rsachdev.Games.API.model;
+
+import com.rsachdev.Games.API.exception.ValidationException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The game properties requested with the fields parameter, held as the MongoDB fields they
+ * are read from. The id is always returned, as MongoDB includes it in every projection, and so
+ * is the version, which entity tags are derived from.
+ */
+public final class GameFields {
+    public static final GameFields ALL = new GameFields(Collections.emptySet());
+    public static final GameFields VERSION = new GameFields(Collections.singleton("version"));
+
+    private static final Map<String, String> DOCUMENT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        DOCUMENT_FIELDS.put("id", "_id");
+        DOCUMENT_FIELDS.put("title", "title");
+        DOCUMENT_FIELDS.put("release_date", "release_date");
+        DOCUMENT_FIELDS.put("genres", "genres");
+        DOCUMENT_FIELDS.put("developer", "developer");
+        DOCUMENT_FIELDS.put("version", "version");
+    }
+
+    private final Set<String> documentFields;
+
+    private GameFields(Set<String> documentFields) {
+        this.documentFields = documentFields;
+    }
+
+    /**
+     * Parses a comma separated list of property names. A missing or empty list selects every property.
+     */
+    public static GameFields of(String fields) throws ValidationException {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+
+        Set<String> documentFields = new LinkedHashSet<>();
+        documentFields.add("version");
+        for (String name : fields.split(",")) {
+            String documentField = DOCUMENT_FIELDS.get(name.trim().toLowerCase());
+            if (documentField == null) {
+                throw new ValidationException("fields must only contain " + String.join(", ", DOCUMENT_FIELDS.keySet()));
+            }
+            documentFields.add(documentField);
+        }
+
+        return new GameFields(Collections.unmodifiableSet(documentFields));
+    }
+
+    public boolean isAll() {
+        return documentFields.isEmpty();
+    }
+
+    public Set<String> getDocumentFields() {
+        return documentFields;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return documentFields.equals(((GameFields) o).documentFields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(documentFields);
+    }
+}
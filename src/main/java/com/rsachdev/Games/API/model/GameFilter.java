@@ -0,0 +1,102 @@
+package com.rsachdev.Games.API.model;
+
+import com.rsachdev.Games.API.exception.ValidationException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+public class GameFilter {
+    private String developer;
+    private List<String> genres;
+    private boolean matchAllGenres;
+    private LocalDate releasedAfter;
+    private LocalDate releasedBefore;
+
+    public static GameFilter of(String developer, List<String> genres, String genreMatch,
+                                LocalDate releasedAfter, LocalDate releasedBefore) throws ValidationException {
+        GameFilter filter = new GameFilter();
+        filter.setDeveloper(developer);
+        filter.setGenres(genres);
+        filter.setReleasedAfter(releasedAfter);
+        filter.setReleasedBefore(releasedBefore);
+
+        switch (genreMatch.trim().toLowerCase()) {
+            case "any":
+                filter.setMatchAllGenres(false);
+                break;
+            case "all":
+                filter.setMatchAllGenres(true);
+                break;
+            default:
+                throw new ValidationException("genre-match must be one of any or all");
+        }
+
+        return filter;
+    }
+
+    public boolean isEmpty() {
+        return developer == null && (genres == null || genres.isEmpty()) && releasedAfter == null && releasedBefore == null;
+    }
+
+    public String getDeveloper() {
+        return developer;
+    }
+
+    public void setDeveloper(String developer) {
+        this.developer = developer;
+    }
+
+    public List<String> getGenres() {
+        return genres;
+    }
+
+    public void setGenres(List<String> genres) {
+        this.genres = genres;
+    }
+
+    public boolean isMatchAllGenres() {
+        return matchAllGenres;
+    }
+
+    public void setMatchAllGenres(boolean matchAllGenres) {
+        this.matchAllGenres = matchAllGenres;
+    }
+
+    public LocalDate getReleasedAfter() {
+        return releasedAfter;
+    }
+
+    public void setReleasedAfter(LocalDate releasedAfter) {
+        this.releasedAfter = releasedAfter;
+    }
+
+    public LocalDate getReleasedBefore() {
+        return releasedBefore;
+    }
+
+    public void setReleasedBefore(LocalDate releasedBefore) {
+        this.releasedBefore = releasedBefore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GameFilter that = (GameFilter) o;
+        return matchAllGenres == that.matchAllGenres
+                && Objects.equals(developer, that.developer)
+                && Objects.equals(genres, that.genres)
+                && Objects.equals(releasedAfter, that.releasedAfter)
+                && Objects.equals(releasedBefore, that.releasedBefore);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(developer, genres, matchAllGenres, releasedAfter, releasedBefore);
+    }
+}
@@ -0,0 +1,36 @@
+package com.rsachdev.Games.API.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class GameTitle {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("title")
+    private String title;
+
+    public GameTitle() {
+    }
+
+    public GameTitle(String id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
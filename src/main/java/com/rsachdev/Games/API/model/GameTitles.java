@@ -0,0 +1,26 @@
+package com.rsachdev.Games.API.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class GameTitles {
+
+    @JsonProperty("items")
+    private List<GameTitle> items;
+
+    public GameTitles() {
+    }
+
+    public GameTitles(List<GameTitle> items) {
+        this.items = items;
+    }
+
+    public List<GameTitle> getItems() {
+        return items;
+    }
+
+    public void setItems(List<GameTitle> items) {
+        this.items = items;
+    }
+}
@@ -1,19 +1,27 @@
 package com.rsachdev.Games.API.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Games {
 
     @JsonProperty("items_per_page")
     private long itemsPerPage;
 
     @JsonProperty("start_index")
-    private long startIndex;
+    private Long startIndex;
 
     @JsonProperty("total_results")
-    private long totalResults;
+    private Long totalResults;
+
+    @JsonProperty("total_results_exact")
+    private Boolean totalResultsExact;
+
+    @JsonProperty("next")
+    private String next;
 
     @JsonProperty("items")
     private List<Game> items;
@@ -26,22 +34,38 @@ public class Games {
         this.itemsPerPage = itemsPerPage;
     }
 
-    public long getStartIndex() {
+    public Long getStartIndex() {
         return startIndex;
     }
 
-    public void setStartIndex(long startIndex) {
+    public void setStartIndex(Long startIndex) {
         this.startIndex = startIndex;
     }
 
-    public long getTotalResults() {
+    public Long getTotalResults() {
         return totalResults;
     }
 
-    public void setTotalResults(long totalResults) {
+    public void setTotalResults(Long totalResults) {
         this.totalResults = totalResults;
     }
 
+    public Boolean getTotalResultsExact() {
+        return totalResultsExact;
+    }
+
+    public void setTotalResultsExact(Boolean totalResultsExact) {
+        this.totalResultsExact = totalResultsExact;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
     public List<Game> getItems() {
         return items;
     }
@@ -0,0 +1,123 @@
+package com.rsachdev.Games.API.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A write made with an Idempotency-Key, keyed by the developer and the key. The status is null
+ * until the write has completed, after which the record holds what its response is replayed from.
+ * The game ids are reserved when the key is claimed, so every attempt at the write uses the same ones.
+ */
+@Document(collection="idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    @Field("_id")
+    private String id;
+
+    @Field("fingerprint")
+    private String fingerprint;
+
+    @Field("status")
+    private Integer status;
+
+    @Field("location")
+    private String location;
+
+    @Field("batch_result")
+    private BatchResult batchResult;
+
+    @Field("game_ids")
+    private List<String> gameIds;
+
+    @Field("abandoned")
+    private boolean abandoned;
+
+    @Field("created_at")
+    private Date createdAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String id, String fingerprint, Date createdAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+    }
+
+    public IdempotencyRecord(String id, String fingerprint, List<String> gameIds, Date createdAt) {
+        this(id, fingerprint, createdAt);
+        this.gameIds = gameIds;
+    }
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public BatchResult getBatchResult() {
+        return batchResult;
+    }
+
+    public void setBatchResult(BatchResult batchResult) {
+        this.batchResult = batchResult;
+    }
+
+    public List<String> getGameIds() {
+        return gameIds;
+    }
+
+    public void setGameIds(List<String> gameIds) {
+        this.gameIds = gameIds;
+    }
+
+    public boolean isAbandoned() {
+        return abandoned;
+    }
+
+    public void setAbandoned(boolean abandoned) {
+        this.abandoned = abandoned;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
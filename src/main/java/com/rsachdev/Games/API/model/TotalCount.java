@@ -0,0 +1,22 @@
+package com.rsachdev.Games.API.model;
+
+import com.rsachdev.Games.API.exception.ValidationException;
+
+public enum TotalCount {
+    EXACT,
+    ESTIMATED,
+    NONE;
+
+    public static TotalCount fromParameter(String includeTotal) throws ValidationException {
+        switch (includeTotal.trim().toLowerCase()) {
+            case "true":
+                return EXACT;
+            case "estimated":
+                return ESTIMATED;
+            case "false":
+                return NONE;
+            default:
+                throw new ValidationException("include-total must be one of true, estimated or false");
+        }
+    }
+}
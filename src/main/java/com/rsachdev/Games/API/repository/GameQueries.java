@@ -0,0 +1,110 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Query and update builders shared by the blocking and reactive repository implementations.
+ */
+final class GameQueries {
+    static final Sort ID_ORDER = Sort.by(Sort.Direction.ASC, "_id");
+
+    /**
+     * Filters ignore case, as the writes do when they match a game to its developer. Only indexes
+     * built with the same collation can serve a filtered query.
+     */
+    static final Collation FILTER_COLLATION = Collation.of(Locale.ENGLISH).strength(Collation.ComparisonLevel.secondary());
+
+    private GameQueries() {
+    }
+
+    static Query ownedBy(String id, String developer, Long expectedVersion) {
+        Criteria criteria = where("_id").is(id).and("developer").regex(developerPattern(developer), "i");
+
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+
+        return new Query(criteria);
+    }
+
+    static Query matching(GameFilter filter) {
+        Query query = new Query();
+
+        if (filter.getDeveloper() != null) {
+            query.addCriteria(where("developer").is(filter.getDeveloper().trim()));
+        }
+
+        if (filter.getGenres() != null && !filter.getGenres().isEmpty()) {
+            Criteria genres = where("genres");
+            query.addCriteria(filter.isMatchAllGenres() ? genres.all(filter.getGenres()) : genres.in(filter.getGenres()));
+        }
+
+        if (filter.getReleasedAfter() != null || filter.getReleasedBefore() != null) {
+            Criteria released = where("release_date");
+            if (filter.getReleasedAfter() != null) {
+                released.gt(filter.getReleasedAfter());
+            }
+            if (filter.getReleasedBefore() != null) {
+                released.lt(filter.getReleasedBefore());
+            }
+            query.addCriteria(released);
+        }
+
+        return filter.isEmpty() ? query : query.collation(FILTER_COLLATION);
+    }
+
+    /**
+     * Restricts the query to games after afterId, when it is not null, in id order.
+     */
+    static Query after(Query query, String afterId) {
+        if (afterId != null) {
+            query.addCriteria(where("_id").gt(afterId));
+        }
+
+        return query.with(ID_ORDER);
+    }
+
+    /**
+     * Restricts the documents read by the query to the requested fields.
+     */
+    static Query projecting(Query query, GameFields fields) {
+        for (String field : fields.getDocumentFields()) {
+            query.fields().include(field);
+        }
+
+        return query;
+    }
+
+    static Update replacement(Game game) {
+        Update update = new Update().inc("version", 1);
+        setOrUnset(update, "title", game.getTitle());
+        setOrUnset(update, "release_date", game.getReleaseDate());
+        setOrUnset(update, "genres", game.getGenres());
+        setOrUnset(update, "developer", game.getDeveloper());
+        return update;
+    }
+
+    private static String developerPattern(String developer) {
+        return "^\\s*" + Pattern.quote(developer.trim()) + "\\s*$";
+    }
+
+    private static void setOrUnset(Update update, String field, Object value) {
+        if (value == null) {
+            update.unset(field);
+        } else {
+            update.set(field, value);
+        }
+    }
+}
@@ -3,5 +3,9 @@ package com.rsachdev.Games.API.repository;
 import com.rsachdev.Games.API.model.Game;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface GameRepository extends MongoRepository<Game, String> {
+/**
+ * The methods inherited from MongoRepository run on the primary. The reads behind GET requests are
+ * declared in GameRepositoryCustom and run on readMongoTemplate.
+ */
+public interface GameRepository extends MongoRepository<Game, String>, GameRepositoryCustom {
 }
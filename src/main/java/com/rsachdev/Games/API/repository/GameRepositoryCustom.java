@@ -0,0 +1,86 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The finders and counts here serve GET requests, and may be answered by a secondary within
+ * games.mongodb.max-staleness-seconds of the primary. The writes go to the primary with the
+ * write concern configured for their kind.
+ */
+public interface GameRepositoryCustom {
+
+    /**
+     * Creates the indexes that serve filtered listings, counts and exports in id order, if they
+     * do not exist yet. They share the collation of the filters, which Spring Data's index
+     * annotations cannot express.
+     */
+    void ensureFilterIndexes();
+
+    long estimatedCount();
+
+    /**
+     * Returns the game with only the requested fields read, or the whole game for GameFields.ALL.
+     */
+    Optional<Game> findProjected(String id, GameFields fields);
+
+    /**
+     * Returns the page of games matching the filter, in id order, with only the requested fields read.
+     */
+    Slice<Game> findMatching(GameFilter filter, GameFields fields, Pageable pageable);
+
+    Slice<Game> findAllBy(Pageable pageable);
+
+    long countMatching(GameFilter filter);
+
+    /**
+     * Returns up to limit games matching the filter in id order, starting after afterId when it is not null,
+     * with only the requested fields read.
+     */
+    List<Game> findMatchingAfter(GameFilter filter, GameFields fields, String afterId, int limit);
+
+    List<Game> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<Game> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+
+    /**
+     * Replaces the game in a single findOneAndUpdate, provided it belongs to the developer and,
+     * when expectedVersion is not null, is still at that version. Returns the updated game,
+     * or null when no game matched.
+     */
+    Game updateIfDeveloper(Game game, String developer, Long expectedVersion);
+
+    /**
+     * Deletes the game provided it belongs to the developer and, when expectedVersion is not
+     * null, is still at that version. Returns whether a game was deleted.
+     */
+    boolean deleteIfDeveloper(String id, String developer, Long expectedVersion);
+
+    /**
+     * Inserts the games in one unordered bulk write. Returns the positions of the games that
+     * could not be inserted, mapped to the MongoDB error code of the failure. When the write
+     * concern is not met every game without a write error of its own is reported with the code
+     * of the write concern error, as none of them is known to have been inserted durably.
+     */
+    Map<Integer, Integer> insertUnordered(List<Game> games);
+
+    /**
+     * Replaces each game that belongs to the developer in one unordered bulk write. Returns
+     * the number of games matched.
+     */
+    long updateUnorderedIfDeveloper(List<Game> games, String developer);
+
+    /**
+     * Streams the games matching the filter in id order, starting after afterId when it is not null.
+     * The iterator holds an open cursor and must be closed.
+     */
+    CloseableIterator<Game> streamAfter(GameFilter filter, String afterId, int batchSize);
+}
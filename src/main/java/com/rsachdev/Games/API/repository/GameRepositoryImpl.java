@@ -0,0 +1,191 @@
+package com.rsachdev.Games.API.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.rsachdev.Games.API.repository.GameQueries.FILTER_COLLATION;
+import static com.rsachdev.Games.API.repository.GameQueries.after;
+import static com.rsachdev.Games.API.repository.GameQueries.matching;
+import static com.rsachdev.Games.API.repository.GameQueries.ownedBy;
+import static com.rsachdev.Games.API.repository.GameQueries.projecting;
+import static com.rsachdev.Games.API.repository.GameQueries.replacement;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class GameRepositoryImpl implements GameRepositoryCustom {
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("readMongoTemplate")
+    private MongoTemplate readMongoTemplate;
+
+    @Autowired
+    private GameWriteConcerns gameWriteConcerns;
+
+    @Override
+    public void ensureFilterIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Game.class);
+        indexOps.ensureIndex(new Index().on("developer", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named("developer_id").collation(FILTER_COLLATION));
+        indexOps.ensureIndex(new Index().on("genres", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named("genres_id").collation(FILTER_COLLATION));
+    }
+
+    @Override
+    public long estimatedCount() {
+        return readMongoTemplate.getCollection(readMongoTemplate.getCollectionName(Game.class)).estimatedDocumentCount();
+    }
+
+    @Override
+    public Optional<Game> findProjected(String id, GameFields fields) {
+        return Optional.ofNullable(readMongoTemplate.findOne(projecting(query(where("_id").is(id)), fields), Game.class));
+    }
+
+    @Override
+    public Slice<Game> findMatching(GameFilter filter, GameFields fields, Pageable pageable) {
+        Query query = projecting(matching(filter), fields)
+                .with(GameQueries.ID_ORDER)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1);
+
+        List<Game> games = readMongoTemplate.find(query, Game.class);
+        boolean hasNext = games.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? games.subList(0, pageable.getPageSize()) : games, pageable, hasNext);
+    }
+
+    @Override
+    public Slice<Game> findAllBy(Pageable pageable) {
+        return findMatching(new GameFilter(), GameFields.ALL, pageable);
+    }
+
+    @Override
+    public long countMatching(GameFilter filter) {
+        return readMongoTemplate.count(matching(filter), Game.class);
+    }
+
+    @Override
+    public List<Game> findMatchingAfter(GameFilter filter, GameFields fields, String afterId, int limit) {
+        return readMongoTemplate.find(projecting(after(matching(filter), afterId), fields).limit(limit), Game.class);
+    }
+
+    @Override
+    public List<Game> findAllByOrderByIdAsc(Pageable pageable) {
+        return readMongoTemplate.find(after(new Query(), null).with(pageable), Game.class);
+    }
+
+    @Override
+    public List<Game> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable) {
+        return readMongoTemplate.find(after(new Query(), id).with(pageable), Game.class);
+    }
+
+    @Override
+    public Game updateIfDeveloper(Game game, String developer, Long expectedVersion) {
+        Document filter = mappedQuery(ownedBy(game.getId(), developer, expectedVersion));
+        Document update = mappedUpdate(game);
+
+        Document updated = mongoTemplate.execute(Game.class, collection -> gameWriteConcerns.forUpdate(collection)
+                .findOneAndUpdate(filter, update, new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)));
+
+        return updated == null ? null : mongoTemplate.getConverter().read(Game.class, updated);
+    }
+
+    @Override
+    public boolean deleteIfDeveloper(String id, String developer, Long expectedVersion) {
+        return mongoTemplate.remove(ownedBy(id, developer, expectedVersion), Game.class).getDeletedCount() > 0;
+    }
+
+    @Override
+    public Map<Integer, Integer> insertUnordered(List<Game> games) {
+        List<Document> documents = new ArrayList<>(games.size());
+        for (Game game : games) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(game, document);
+            documents.add(document);
+        }
+
+        // Inserted through the collection itself, as MongoTemplate would translate the
+        // MongoBulkWriteException and lose the position of each failure.
+        try {
+            gameWriteConcerns.forInsert(collection()).insertMany(documents, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException mbwe) {
+            Map<Integer, Integer> failures = new HashMap<>();
+            for (BulkWriteError error : mbwe.getWriteErrors()) {
+                failures.put(error.getIndex(), error.getCode());
+            }
+            // The write concern was not met, so none of the inserts is known to be durable.
+            if (mbwe.getWriteConcernError() != null) {
+                for (int index = 0; index < games.size(); index++) {
+                    failures.putIfAbsent(index, mbwe.getWriteConcernError().getCode());
+                }
+            }
+            return failures;
+        }
+
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public long updateUnorderedIfDeveloper(List<Game> games, String developer) {
+        List<UpdateOneModel<Document>> updates = new ArrayList<>(games.size());
+
+        for (Game game : games) {
+            updates.add(new UpdateOneModel<>(mappedQuery(ownedBy(game.getId(), developer, null)), mappedUpdate(game)));
+        }
+
+        return gameWriteConcerns.forUpdate(collection()).bulkWrite(updates, new BulkWriteOptions().ordered(false)).getMatchedCount();
+    }
+
+    @Override
+    public CloseableIterator<Game> streamAfter(GameFilter filter, String afterId, int batchSize) {
+        return readMongoTemplate.stream(after(matching(filter), afterId).cursorBatchSize(batchSize), Game.class);
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Game.class));
+    }
+
+    private Document mappedQuery(Query query) {
+        return new QueryMapper(mongoTemplate.getConverter()).getMappedObject(query.getQueryObject(), entity());
+    }
+
+    private Document mappedUpdate(Game game) {
+        return new UpdateMapper(mongoTemplate.getConverter()).getMappedObject(replacement(game).getUpdateObject(), entity());
+    }
+
+    private MongoPersistentEntity<?> entity() {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Game.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.rsachdev.Games.API.repository;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * The write concern of each kind of write, from games.mongodb.write-concern.insert, update and
+ * delete. An empty value keeps the client's default. MongoTemplate consults this resolver for
+ * inserts and removes, but not for findAndModify or bulk writes, so GameRepositoryImpl applies
+ * those to the collection itself.
+ */
+@Component
+public class GameWriteConcerns implements WriteConcernResolver {
+    @Value("${games.mongodb.write-concern.insert}")
+    private String insertName;
+
+    @Value("${games.mongodb.write-concern.update}")
+    private String updateName;
+
+    @Value("${games.mongodb.write-concern.delete}")
+    private String deleteName;
+
+    private WriteConcern insert;
+    private WriteConcern update;
+    private WriteConcern delete;
+
+    @PostConstruct
+    void init() {
+        insert = parse(insertName);
+        update = parse(updateName);
+        delete = parse(deleteName);
+    }
+
+    @Override
+    public WriteConcern resolve(MongoAction action) {
+        WriteConcern writeConcern;
+
+        switch (action.getMongoActionOperation()) {
+            case INSERT:
+            case INSERT_LIST:
+            case SAVE:
+                writeConcern = insert;
+                break;
+            case UPDATE:
+                writeConcern = update;
+                break;
+            case REMOVE:
+                writeConcern = delete;
+                break;
+            default:
+                writeConcern = null;
+        }
+
+        return writeConcern == null ? action.getDefaultWriteConcern() : writeConcern;
+    }
+
+    public <T> MongoCollection<T> forInsert(MongoCollection<T> collection) {
+        return insert == null ? collection : collection.withWriteConcern(insert);
+    }
+
+    public <T> MongoCollection<T> forUpdate(MongoCollection<T> collection) {
+        return update == null ? collection : collection.withWriteConcern(update);
+    }
+
+    static WriteConcern parse(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        }
+
+        WriteConcern writeConcern = WriteConcern.valueOf(name.trim());
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown write concern: " + name);
+        }
+        return writeConcern;
+    }
+}
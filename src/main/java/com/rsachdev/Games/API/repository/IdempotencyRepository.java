@@ -0,0 +1,7 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface IdempotencyRepository extends MongoRepository<IdempotencyRecord, String>, IdempotencyRepositoryCustom {
+}
@@ -0,0 +1,26 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.IdempotencyRecord;
+
+import java.util.Date;
+
+public interface IdempotencyRepositoryCustom {
+
+    /**
+     * Creates or replaces the TTL index that removes records ttlSeconds after they were created.
+     */
+    void ensureExpiryIndex(long ttlSeconds);
+
+    /**
+     * Claims the record of a write with the same fingerprint that was abandoned, or was started
+     * before abandonedBefore and never completed, restarting its lease. The record keeps the game
+     * ids it was first claimed with. Returns null if there is no such record.
+     */
+    IdempotencyRecord claimAbandoned(String id, String fingerprint, Date abandonedBefore, Date now);
+
+    /**
+     * Marks the record of a write that has not completed as abandoned, so that a retry may claim it
+     * without waiting for its lease to run out.
+     */
+    void abandon(String id);
+}
@@ -0,0 +1,64 @@
+package com.rsachdev.Games.API.repository;
+
+import com.mongodb.MongoCommandException;
+import com.rsachdev.Games.API.model.IdempotencyRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class IdempotencyRepositoryImpl implements IdempotencyRepositoryCustom {
+    private static final String EXPIRY_INDEX = "created_at_ttl";
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void ensureExpiryIndex(long ttlSeconds) {
+        IndexOperations indexOps = mongoTemplate.indexOps(IdempotencyRecord.class);
+        Index index = new Index().on("created_at", Sort.Direction.ASC).named(EXPIRY_INDEX).expire(ttlSeconds, TimeUnit.SECONDS);
+
+        // An index cannot be recreated with a different expiry, so a changed TTL replaces it.
+        try {
+            indexOps.ensureIndex(index);
+        } catch (UncategorizedMongoDbException e) {
+            if (!isIndexOptionsConflict(e)) {
+                throw e;
+            }
+            indexOps.dropIndex(EXPIRY_INDEX);
+            indexOps.ensureIndex(index);
+        }
+    }
+
+    @Override
+    public IdempotencyRecord claimAbandoned(String id, String fingerprint, Date abandonedBefore, Date now) {
+        return mongoTemplate.findAndModify(
+                query(where("_id").is(id).and("status").is(null).and("fingerprint").is(fingerprint)
+                        .orOperator(where("created_at").lt(abandonedBefore), where("abandoned").is(true))),
+                new Update().set("created_at", now).set("abandoned", false),
+                FindAndModifyOptions.options().returnNew(true),
+                IdempotencyRecord.class);
+    }
+
+    @Override
+    public void abandon(String id) {
+        mongoTemplate.updateFirst(query(where("_id").is(id).and("status").is(null)),
+                new Update().set("abandoned", true), IdempotencyRecord.class);
+    }
+
+    private static boolean isIndexOptionsConflict(UncategorizedMongoDbException e) {
+        return e.getCause() instanceof MongoCommandException
+                && ((MongoCommandException) e.getCause()).getErrorCode() == INDEX_OPTIONS_CONFLICT;
+    }
+}
@@ -0,0 +1,15 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.Game;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveGameRepository extends ReactiveMongoRepository<Game, String>, ReactiveGameRepositoryCustom {
+
+    Flux<Game> findAllBy(Pageable pageable);
+
+    Flux<Game> findAllByOrderByIdAsc(Pageable pageable);
+
+    Flux<Game> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+}
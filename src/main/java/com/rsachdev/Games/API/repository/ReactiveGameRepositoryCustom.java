@@ -0,0 +1,34 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterparts of the filtered queries and conditional writes in {@link GameRepositoryCustom}.
+ */
+public interface ReactiveGameRepositoryCustom {
+
+    Mono<Long> estimatedCount();
+
+    Mono<Game> findProjected(String id, GameFields fields);
+
+    Flux<Game> findMatching(GameFilter filter, GameFields fields, Pageable pageable);
+
+    Mono<Long> countMatching(GameFilter filter);
+
+    Flux<Game> findMatchingAfter(GameFilter filter, GameFields fields, String afterId, int limit);
+
+    /**
+     * Emits the updated game, or completes empty when no game matched.
+     */
+    Mono<Game> updateIfDeveloper(Game game, String developer, Long expectedVersion);
+
+    /**
+     * Emits whether a game was deleted.
+     */
+    Mono<Boolean> deleteIfDeveloper(String id, String developer, Long expectedVersion);
+}
@@ -0,0 +1,63 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.rsachdev.Games.API.repository.GameQueries.after;
+import static com.rsachdev.Games.API.repository.GameQueries.matching;
+import static com.rsachdev.Games.API.repository.GameQueries.ownedBy;
+import static com.rsachdev.Games.API.repository.GameQueries.projecting;
+import static com.rsachdev.Games.API.repository.GameQueries.replacement;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class ReactiveGameRepositoryImpl implements ReactiveGameRepositoryCustom {
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Long> estimatedCount() {
+        return Mono.from(reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Game.class))
+                .estimatedDocumentCount());
+    }
+
+    @Override
+    public Mono<Game> findProjected(String id, GameFields fields) {
+        return reactiveMongoTemplate.findOne(projecting(query(where("_id").is(id)), fields), Game.class);
+    }
+
+    @Override
+    public Flux<Game> findMatching(GameFilter filter, GameFields fields, Pageable pageable) {
+        return reactiveMongoTemplate.find(projecting(matching(filter), fields).with(GameQueries.ID_ORDER)
+                .skip(pageable.getOffset()).limit(pageable.getPageSize()), Game.class);
+    }
+
+    @Override
+    public Mono<Long> countMatching(GameFilter filter) {
+        return reactiveMongoTemplate.count(matching(filter), Game.class);
+    }
+
+    @Override
+    public Flux<Game> findMatchingAfter(GameFilter filter, GameFields fields, String afterId, int limit) {
+        return reactiveMongoTemplate.find(projecting(after(matching(filter), afterId), fields).limit(limit), Game.class);
+    }
+
+    @Override
+    public Mono<Game> updateIfDeveloper(Game game, String developer, Long expectedVersion) {
+        return reactiveMongoTemplate.findAndModify(ownedBy(game.getId(), developer, expectedVersion), replacement(game),
+                FindAndModifyOptions.options().returnNew(true), Game.class);
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfDeveloper(String id, String developer, Long expectedVersion) {
+        return reactiveMongoTemplate.remove(ownedBy(id, developer, expectedVersion), Game.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+}
@@ -1,18 +1,26 @@
 package com.rsachdev.Games.API.service;
 
+import com.amazonaws.SdkClientException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rsachdev.Games.API.exception.ServiceException;
 import com.rsachdev.Games.API.model.Developer;
 import com.rsachdev.Games.API.model.Developers;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AmazonS3Service {
@@ -25,33 +33,63 @@ public class AmazonS3Service {
     @Autowired
     private AmazonS3 amazonS3Client;
 
-    private List<Developer> authorisedDevelopers;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary responseSize;
 
-    public List<Developer> getAuthorisedDevelopers() throws ServiceException {
-        if(authorisedDevelopers == null) {
-            S3ObjectInputStream inputStream;
+    @PostConstruct
+    void registerMetrics() {
+        responseSize = DistributionSummary.builder("s3.response.size")
+                .description("Size of developers.json when it is downloaded from S3")
+                .baseUnit("bytes")
+                .tag("bucket", BUCKET)
+                .tag("key", FILE)
+                .register(meterRegistry);
+    }
 
-            try {
-                inputStream = getDevelopers();
-                authorisedDevelopers = unmarshallJson(inputStream);
-            } catch (IOException | AmazonS3Exception e) {
-                throw new ServiceException("Error when retrieving list of authorised developers", e);
+    /**
+     * Returns null when eTag is supplied and developers.json has not changed since it was issued.
+     */
+    public DeveloperIndex getAuthorisedDevelopers(String eTag) throws ServiceException {
+        long start = System.nanoTime();
+        String outcome = "error";
+
+        try (S3Object object = getDevelopers(eTag)) {
+            if (object == null) {
+                outcome = "not_modified";
+                return null;
             }
-        }
 
-        return authorisedDevelopers;
+            List<Developer> developers = unmarshallJson(object.getObjectContent());
+            responseSize.record(object.getObjectMetadata().getContentLength());
+            outcome = "success";
+            return DeveloperIndex.of(developers, object.getObjectMetadata().getETag());
+        } catch (IOException | SdkClientException e) {
+            throw new ServiceException("Error when retrieving list of authorised developers", e);
+        } finally {
+            Timer.builder("s3.requests")
+                    .description("Time taken to fetch and read developers.json from S3")
+                    .tag("bucket", BUCKET)
+                    .tag("key", FILE)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private S3ObjectInputStream getDevelopers() throws AmazonS3Exception {
-        S3Object object;
+    private S3Object getDevelopers(String eTag) throws AmazonS3Exception {
+        GetObjectRequest request = new GetObjectRequest(BUCKET, FILE);
+
+        if (eTag != null) {
+            request.setNonmatchingETagConstraints(Collections.singletonList(eTag));
+        }
 
         try {
-            object = amazonS3Client.getObject(BUCKET, FILE);
+            return amazonS3Client.getObject(request);
         } catch(AmazonS3Exception ase) {
             throw new AmazonS3Exception(FILE + " or " + BUCKET + " doesn't exist", ase);
         }
-
-        return object.getObjectContent();
     }
 
     private List<Developer> unmarshallJson(S3ObjectInputStream objectStream) throws IOException {
@@ -0,0 +1,117 @@
+package com.rsachdev.Games.API.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed pool of threads and a bounded queue for calls to one dependency. Once both are full
+ * further calls are rejected straight away, so a slow dependency only ever holds its own threads.
+ * Calls are given timeoutMs to complete, and a call that is abandoned while still queued is
+ * removed from the queue rather than run.
+ */
+public class Bulkhead implements MeterBinder {
+    private final String name;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int threads, int queueCapacity, long timeoutMs) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        FunctionCounter.builder("games.bulkhead.rejected", rejected, LongAdder::sum)
+                .description("Calls rejected because every thread and queue slot of the bulkhead was taken")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws RejectedExecutionException when every thread is busy and the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable run = () -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+
+        try {
+            executor.execute(run);
+        } catch (RejectedExecutionException ree) {
+            rejected.increment();
+            throw ree;
+        }
+
+        // An abandoned task gives its queue slot back at once rather than when a thread reaches it.
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                executor.remove(run);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Runs the task and waits up to timeoutMs for it. The exception the task threw is the cause of
+     * the ExecutionException.
+     */
+    public <T> T call(Callable<T> task) throws ExecutionException, TimeoutException, InterruptedException {
+        CompletableFuture<T> future = submit(task);
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
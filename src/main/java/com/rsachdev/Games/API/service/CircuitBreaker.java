@@ -0,0 +1,164 @@
+package com.rsachdev.Games.API.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calls to a dependency that is failing. While CLOSED every call is permitted and the
+ * outcomes of the last windowSize calls are kept. Once at least minimumCalls are kept and the
+ * failure rate among them reaches failureRateThreshold percent, the circuit OPENs and every call is
+ * refused for openMs. It then goes HALF_OPEN and permits probeCalls calls, closing again if all of
+ * them succeed and reopening if any fails.
+ *
+ * Every permitted call must be reported through onSuccess, onFailure or onIgnored, or a half-open
+ * circuit would wait forever for its probes.
+ */
+public class CircuitBreaker implements MeterBinder {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int probeCalls;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int position;
+    private int recorded;
+    private int failures;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final LongAdder refused = new LongAdder();
+
+    public CircuitBreaker(String name, int failureRateThreshold, int windowSize, int minimumCalls, long openMs, int probeCalls) {
+        this(name, failureRateThreshold, windowSize, minimumCalls, openMs, probeCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureRateThreshold, int windowSize, int minimumCalls, long openMs, int probeCalls,
+                   LongSupplier nanoClock) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.probeCalls = probeCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (State gaugedState : State.values()) {
+            Gauge.builder("games.circuit.state", this, breaker -> breaker.getState() == gaugedState ? 1 : 0)
+                    .description("1 for the state the circuit breaker is in, 0 for the others")
+                    .tag("name", name)
+                    .tag("state", gaugedState.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("games.circuit.refused", refused, LongAdder::sum)
+                .description("Calls refused without reaching the dependency because its circuit was open")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a call may be made now. An open circuit goes half-open here once openMs have passed.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && probesStarted < probeCalls) {
+            probesStarted++;
+            return true;
+        }
+
+        refused.increment();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= probeCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Reports a permitted call that never reached the dependency, which says nothing about its health.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.model.Developer;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable, open-addressed hash set of authorised developer names.
+ * Names are trimmed and lower-cased once when the index is built so that
+ * lookups can match case-insensitively without allocating.
+ */
+public final class DeveloperIndex {
+    private final String[] table;
+    private final int mask;
+    private final int size;
+    private final String eTag;
+
+    private DeveloperIndex(String[] table, int size, String eTag) {
+        this.table = table;
+        this.mask = table.length - 1;
+        this.size = size;
+        this.eTag = eTag;
+    }
+
+    public static DeveloperIndex of(List<Developer> developers) {
+        return of(developers, null);
+    }
+
+    public static DeveloperIndex of(List<Developer> developers, String eTag) {
+        if (developers == null || developers.isEmpty()) {
+            return new DeveloperIndex(new String[1], 0, eTag);
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        for (Developer developer : developers) {
+            if (developer != null && developer.getName() != null) {
+                names.add(developer.getName().trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(names.size(), 1) * 2 - 1) << 1;
+        String[] table = new String[capacity];
+        int mask = capacity - 1;
+
+        for (String name : names) {
+            int slot = hash(name, 0, name.length()) & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = name;
+        }
+
+        return new DeveloperIndex(table, names.size(), eTag);
+    }
+
+    public boolean contains(String developer) {
+        if (developer == null) {
+            return false;
+        }
+
+        int start = 0;
+        int end = developer.length();
+        while (start < end && developer.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && developer.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+
+        for (int slot = hash(developer, start, end) & mask; ; slot = (slot + 1) & mask) {
+            String candidate = table[slot];
+            if (candidate == null) {
+                return false;
+            }
+            if (candidate.length() == length && candidate.regionMatches(true, 0, developer, start, length)) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    private static int hash(String value, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        // Names often differ only in a trailing number, which leaves the polynomial hashes
+        // consecutive; multiplying spreads them so linear probing does not form long runs.
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
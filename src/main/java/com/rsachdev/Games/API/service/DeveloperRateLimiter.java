@@ -0,0 +1,173 @@
+package com.rsachdev.Games.API.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rsachdev.Games.API.exception.RateLimitExceededException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-developer token buckets for the write endpoints. Each developer may make writes-per-second
+ * writes on average and up to burst at once, unless games.rate-limit.overrides gives them their own
+ * limits as a comma separated list of developer=writes-per-second/burst.
+ *
+ * Buckets are held in a Caffeine cache keyed by the trimmed, lower-cased developer name. Each
+ * bucket is a single AtomicLong updated by compare-and-set, so acquiring never locks. A bucket that
+ * has been idle for long enough to refill completely is indistinguishable from a new one, so
+ * buckets expire once they have not been used for that long.
+ */
+@Component
+public class DeveloperRateLimiter {
+    private static final String CACHE_NAME = "rate-limits";
+
+    @Value("${games.rate-limit.enabled}")
+    private boolean enabled;
+
+    @Value("${games.rate-limit.writes-per-second}")
+    private double writesPerSecond;
+
+    @Value("${games.rate-limit.burst}")
+    private int burst;
+
+    @Value("${games.rate-limit.overrides}")
+    private String overrides;
+
+    @Value("${games.rate-limit.maximum-developers}")
+    private long maximumDevelopers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LongSupplier nanoClock = System::nanoTime;
+
+    private Limit defaultLimit;
+    private Map<String, Limit> developerLimits;
+    private Cache<String, TokenBucket> buckets;
+
+    @PostConstruct
+    void init() {
+        defaultLimit = new Limit(writesPerSecond, burst);
+        developerLimits = parse(overrides);
+
+        long idleNanos = defaultLimit.refillNanos();
+        for (Limit limit : developerLimits.values()) {
+            idleNanos = Math.max(idleNanos, limit.refillNanos());
+        }
+
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maximumDevelopers)
+                .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, CACHE_NAME);
+    }
+
+    /**
+     * Takes cost tokens from the developer's bucket. A cost above the developer's burst could never
+     * be met, however long they waited, so it is rejected as invalid rather than rate limited.
+     */
+    public void acquire(String developer, int cost) throws RateLimitExceededException, ValidationException {
+        if (!enabled || developer == null) {
+            return;
+        }
+
+        String key = developer.trim().toLowerCase(Locale.ROOT);
+        Limit limit = developerLimits.getOrDefault(key, defaultLimit);
+        if (cost > limit.burst) {
+            throw new ValidationException("Developer " + developer + " may make at most " + limit.burst + " writes in one request");
+        }
+
+        TokenBucket bucket = buckets.get(key, name -> new TokenBucket(limit));
+        long waitNanos = bucket.tryAcquire(cost, nanoClock.getAsLong());
+
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new RateLimitExceededException("Developer " + developer + " has exceeded their write rate limit", retryAfterSeconds);
+        }
+    }
+
+    static Map<String, Limit> parse(String overrides) {
+        Map<String, Limit> limits = new HashMap<>();
+
+        if (overrides == null || overrides.trim().isEmpty()) {
+            return limits;
+        }
+
+        for (String override : overrides.split(",")) {
+            String[] developerAndLimit = override.split("=");
+            String[] rateAndBurst = developerAndLimit.length == 2 ? developerAndLimit[1].split("/") : new String[0];
+            if (rateAndBurst.length != 2) {
+                throw new IllegalArgumentException("Rate limit override must be developer=writes-per-second/burst: " + override);
+            }
+
+            limits.put(developerAndLimit[0].trim().toLowerCase(Locale.ROOT),
+                    new Limit(Double.parseDouble(rateAndBurst[0].trim()), Integer.parseInt(rateAndBurst[1].trim())));
+        }
+
+        return limits;
+    }
+
+    static final class Limit {
+        private final long intervalNanos;
+        private final int burst;
+
+        Limit(double writesPerSecond, int burst) {
+            if (writesPerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate limits must allow at least one write");
+            }
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / writesPerSecond);
+            this.burst = burst;
+        }
+
+        long refillNanos() {
+            return intervalNanos * burst;
+        }
+    }
+
+    /**
+     * A token bucket kept as the time at which it will next be full, as in the generic cell rate
+     * algorithm. Taking n tokens moves that time n intervals later, and is refused if it would then
+     * be more than burst intervals away.
+     */
+    static final class TokenBucket {
+        private final Limit limit;
+        private final AtomicLong fullAt;
+
+        TokenBucket(Limit limit) {
+            this.limit = limit;
+            this.fullAt = new AtomicLong(Long.MIN_VALUE);
+        }
+
+        /**
+         * Returns 0 if the tokens were taken, or otherwise how long until they could be.
+         */
+        long tryAcquire(int cost, long now) {
+            long charge = limit.intervalNanos * Math.max(cost, 1);
+
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + charge;
+                long excess = next - now - limit.refillNanos();
+
+                if (excess > 0) {
+                    return excess;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
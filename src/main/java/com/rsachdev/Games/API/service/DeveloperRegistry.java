@@ -0,0 +1,169 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.CircuitOpenException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class DeveloperRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+
+    @Autowired
+    private AmazonS3Service amazonS3Service;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("s3Fetches")
+    private Bulkhead s3Fetches;
+
+    @Autowired
+    @Qualifier("s3Circuit")
+    private CircuitBreaker s3Circuit;
+
+    private final AtomicReference<DeveloperIndex> snapshot = new AtomicReference<>();
+    private final Object loadLock = new Object();
+    private volatile long lastRefreshed;
+
+    private Timer refreshTimer;
+    private Counter refreshFailures;
+
+    @PostConstruct
+    void registerMetrics() {
+        refreshTimer = Timer.builder("developers.refresh")
+                .description("Time taken to fetch developers.json from S3")
+                .register(meterRegistry);
+        refreshFailures = Counter.builder("developers.refresh.failures")
+                .description("Failed attempts to fetch developers.json from S3")
+                .register(meterRegistry);
+        Gauge.builder("developers.snapshot.age", this, DeveloperRegistry::snapshotAgeSeconds)
+                .description("Seconds since developers.json was last confirmed current")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("developers.snapshot.size", snapshot, s -> s.get() == null ? 0 : s.get().size())
+                .description("Number of authorised developers in the current snapshot")
+                .register(meterRegistry);
+    }
+
+    public boolean isAuthorised(String developer) throws ServiceException {
+        DeveloperIndex index = snapshot.get();
+
+        if (index == null) {
+            index = loadInitial();
+        }
+
+        return index.contains(developer);
+    }
+
+    /**
+     * Whether a snapshot is held, in which case isAuthorised answers from memory without blocking.
+     */
+    public boolean isLoaded() {
+        return snapshot.get() != null;
+    }
+
+    /**
+     * Downloads without holding loadLock, so a create waiting for the first snapshot is never held
+     * up by a slow refresh. The lock is only taken to swap the snapshot in, and a snapshot loaded
+     * by a create in the meantime is kept.
+     */
+    @Scheduled(fixedDelayString = "${developers.refresh.interval-ms}")
+    public void refresh() {
+        DeveloperIndex current = snapshot.get();
+        DeveloperIndex latest;
+
+        try {
+            latest = fetch(current == null ? null : current.getETag());
+        } catch (ServiceException se) {
+            LOG.error("Error refreshing authorised developers - continuing with last known list", se);
+            return;
+        }
+
+        if (latest != null) {
+            synchronized (loadLock) {
+                snapshot.compareAndSet(current, latest);
+            }
+        }
+    }
+
+    private DeveloperIndex loadInitial() throws ServiceException {
+        synchronized (loadLock) {
+            DeveloperIndex index = snapshot.get();
+
+            if (index == null) {
+                index = fetch(null);
+                snapshot.set(index);
+            }
+
+            return index;
+        }
+    }
+
+    /**
+     * Fails at once while the S3 circuit is open, so a cold start against an unavailable S3 does not
+     * send every create to S3 in turn. Scheduled refreshes probe S3 once the circuit half-opens.
+     */
+    private DeveloperIndex fetch(String eTag) throws ServiceException {
+        if (!s3Circuit.tryAcquire()) {
+            throw new CircuitOpenException("Not retrieving list of authorised developers - S3 circuit is open");
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            DeveloperIndex latest = download(eTag);
+            s3Circuit.onSuccess();
+            lastRefreshed = System.currentTimeMillis();
+            return latest;
+        } catch (ServiceException se) {
+            s3Circuit.onFailure();
+            refreshFailures.increment();
+            throw se;
+        } finally {
+            refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Downloads developers.json on the S3 bulkhead, so a caller waiting for the first snapshot gives
+     * up after its timeout rather than waiting on S3 for as long as the client allows.
+     */
+    private DeveloperIndex download(String eTag) throws ServiceException {
+        try {
+            return s3Fetches.call(() -> amazonS3Service.getAuthorisedDevelopers(eTag));
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof ServiceException) {
+                throw (ServiceException) ee.getCause();
+            }
+            throw new ServiceException("Error when retrieving list of authorised developers", ee.getCause());
+        } catch (TimeoutException | RejectedExecutionException e) {
+            throw new ServiceException("Timed out retrieving list of authorised developers", e);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted retrieving list of authorised developers", ie);
+        }
+    }
+
+    private double snapshotAgeSeconds() {
+        long refreshed = lastRefreshed;
+        return refreshed == 0 ? 0 : (System.currentTimeMillis() - refreshed) / 1000.0;
+    }
+}
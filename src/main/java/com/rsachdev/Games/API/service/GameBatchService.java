@@ -0,0 +1,244 @@
+package com.rsachdev.Games.API.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.BatchItemResult;
+import com.rsachdev.Games.API.model.BatchItemResult.Status;
+import com.rsachdev.Games.API.model.BatchResult;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.repository.GameRepository;
+import com.rsachdev.Games.API.validation.GameValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class GameBatchService {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+
+    @Value("${games.batch.max-size}")
+    private int maxSize;
+
+    @Value("${games.batch.chunk-size}")
+    private int chunkSize;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameValidator gameValidator;
+
+    @Autowired
+    private DeveloperRegistry developerRegistry;
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    public BatchResult createGames(List<Game> games, String developer) throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        return createGames(games, developer, null);
+    }
+
+    /**
+     * Creates the games under ids reserved for them in advance, one per game, by an earlier claim of
+     * the same request. A game whose id is already taken was created by an earlier attempt at the
+     * request, so it is reported as created rather than as a duplicate.
+     */
+    public BatchResult createGames(List<Game> games, String developer, List<String> gameIds) throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        validateBatchSize(games);
+
+        if (developer == null || !developerRegistry.isAuthorised(developer)) {
+            throw new UnauthorisedDeveloperException("Developer not authorised to create games");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[games.size()];
+        List<Integer> writable = checkItems(games, developer, false, results);
+
+        for (List<Integer> chunk : chunks(writable)) {
+            List<Game> chunkGames = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                Game game = games.get(index);
+                game.setId(gameIds == null ? UUID.randomUUID().toString() : gameIds.get(index));
+                game.setVersion(0L);
+                chunkGames.add(game);
+            }
+
+            Map<Integer, Integer> failures;
+            try {
+                failures = gameRepository.insertUnordered(chunkGames);
+            } catch (MongoException | DataAccessException e) {
+                LOG.error("Error when creating a chunk of {} games", chunk.size(), e);
+                markFailed(chunk, games, results);
+                continue;
+            }
+
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                Integer code = failures.get(i);
+                boolean duplicate = code != null && ErrorCategory.fromErrorCode(code) == ErrorCategory.DUPLICATE_KEY;
+                Status status = code == null || duplicate && gameIds != null ? Status.CREATED
+                        : duplicate ? Status.DUPLICATE : Status.ERROR;
+                results[index] = new BatchItemResult(index, games.get(index).getId(), status);
+
+                if (status == Status.CREATED) {
+                    titleSearchIndex.index(games.get(index));
+                }
+            }
+        }
+
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    public BatchResult updateGames(List<Game> games, String developer) throws UnauthorisedDeveloperException, ValidationException {
+        validateBatchSize(games);
+
+        if (developer == null) {
+            throw new UnauthorisedDeveloperException("Developer not authorised to update games");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[games.size()];
+        List<Integer> writable = checkItems(games, developer, true, results);
+
+        for (List<Integer> chunk : chunks(writable)) {
+            List<Game> chunkGames = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                chunkGames.add(games.get(index));
+            }
+
+            try {
+                long matched = gameRepository.updateUnorderedIfDeveloper(chunkGames, developer);
+                Map<String, Game> unmatched = matched == chunk.size() ? Collections.emptyMap() : findExisting(chunkGames);
+
+                for (int index : chunk) {
+                    String id = games.get(index).getId();
+                    Status status = updateStatus(id, developer, matched == chunk.size(), unmatched);
+                    results[index] = new BatchItemResult(index, id, status);
+
+                    if (status == Status.UPDATED) {
+                        titleSearchIndex.index(games.get(index));
+                    }
+                }
+            } catch (MongoException | DataAccessException e) {
+                // The lookup of unmatched games goes through MongoTemplate, whose failures are
+                // translated into DataAccessException rather than thrown as MongoException.
+                LOG.error("Error when updating a chunk of {} games", chunk.size(), e);
+                markFailed(chunk, games, results);
+            } finally {
+                for (Game game : chunkGames) {
+                    gameCache.invalidate(game.getId());
+                }
+            }
+        }
+
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    private void validateBatchSize(List<Game> games) throws ValidationException {
+        if (games == null || games.isEmpty()) {
+            throw new ValidationException("Batch must contain at least one game");
+        }
+
+        if (games.size() > maxSize) {
+            throw new ValidationException("Batch must contain at most " + maxSize + " games");
+        }
+    }
+
+    /**
+     * Records a result for every game that cannot be written and returns the positions of the rest.
+     */
+    private List<Integer> checkItems(List<Game> games, String developer, boolean requireId, BatchItemResult[] results) {
+        List<Integer> writable = new ArrayList<>(games.size());
+
+        for (int index = 0; index < games.size(); index++) {
+            Game game = games.get(index);
+            if (game == null) {
+                BatchItemResult result = new BatchItemResult(index, null, Status.INVALID);
+                result.setErrors(Collections.singletonList("Game must not be null"));
+                results[index] = result;
+                continue;
+            }
+
+            List<String> errors = new ArrayList<>(gameValidator.validateNotNullOrEmpty(game));
+
+            if (requireId && (game.getId() == null || game.getId().trim().isEmpty())) {
+                errors.add("Game must have an id");
+            }
+
+            if (!errors.isEmpty()) {
+                BatchItemResult result = new BatchItemResult(index, game.getId(), Status.INVALID);
+                result.setErrors(errors);
+                results[index] = result;
+            } else if (!isDeveloperOfGame(game, developer)) {
+                results[index] = new BatchItemResult(index, game.getId(), Status.UNAUTHORISED);
+            } else {
+                writable.add(index);
+            }
+        }
+
+        return writable;
+    }
+
+    private List<List<Integer>> chunks(List<Integer> positions) {
+        List<List<Integer>> chunks = new ArrayList<>();
+
+        for (int start = 0; start < positions.size(); start += chunkSize) {
+            chunks.add(positions.subList(start, Math.min(start + chunkSize, positions.size())));
+        }
+
+        return chunks;
+    }
+
+    private Map<String, Game> findExisting(List<Game> games) {
+        List<String> ids = new ArrayList<>(games.size());
+        for (Game game : games) {
+            ids.add(game.getId());
+        }
+
+        Map<String, Game> existing = new HashMap<>();
+        for (Game game : gameRepository.findAllById(ids)) {
+            existing.put(game.getId(), game);
+        }
+
+        return existing;
+    }
+
+    private Status updateStatus(String id, String developer, boolean allMatched, Map<String, Game> existing) {
+        if (allMatched) {
+            return Status.UPDATED;
+        }
+
+        Game game = existing.get(id);
+        if (game == null) {
+            return Status.NOT_FOUND;
+        }
+
+        return isDeveloperOfGame(game, developer) ? Status.UPDATED : Status.UNAUTHORISED;
+    }
+
+    private void markFailed(List<Integer> chunk, List<Game> games, BatchItemResult[] results) {
+        for (int index : chunk) {
+            results[index] = new BatchItemResult(index, games.get(index).getId(), Status.ERROR);
+        }
+    }
+
+    private boolean isDeveloperOfGame(Game game, String developer) {
+        return game.getDeveloper().trim().toLowerCase().equals(developer.trim().toLowerCase());
+    }
+}
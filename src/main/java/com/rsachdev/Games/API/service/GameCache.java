@@ -0,0 +1,120 @@
+package com.rsachdev.Games.API.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rsachdev.Games.API.model.Game;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Size-bounded read-through cache of games keyed by id. Misses are cached as empty
+ * values with their own, shorter, time to live. Lookups pass straight through to the
+ * loader when the cache is disabled.
+ */
+@Component
+public class GameCache {
+    private static final String CACHE_NAME = "games";
+
+    @Value("${games.cache.enabled}")
+    private boolean enabled;
+
+    @Value("${games.cache.maximum-size}")
+    private long maximumSize;
+
+    @Value("${games.cache.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${games.cache.negative-ttl-seconds}")
+    private long negativeTtlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, Optional<Game>> cache;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        long negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<Game>>() {
+                    @Override
+                    public long expireAfterCreate(String id, Optional<Game> game, long currentTime) {
+                        return game.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, Optional<Game> game, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, game, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, Optional<Game> game, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<Game> get(String id, Function<String, Optional<Game>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+
+        return cache.get(id, loader);
+    }
+
+    /**
+     * The game if the cache holds it, without loading it on a miss.
+     */
+    public Optional<Game> getIfPresent(String id) {
+        if (cache == null) {
+            return Optional.empty();
+        }
+
+        Optional<Game> game = cache.getIfPresent(id);
+        return game == null ? Optional.empty() : game;
+    }
+
+    /**
+     * Caches the result of a write made by this instance, so that reads served by a secondary
+     * that has not yet replicated it cannot put an older game back in the cache. Concurrent
+     * updates of a game may finish in any order, so a game replaces only an older version of
+     * itself.
+     */
+    public void put(String id, Optional<Game> game) {
+        if (cache != null) {
+            cache.asMap().merge(id, game, (cached, written) -> supersedes(cached, written) ? cached : written);
+        }
+    }
+
+    private static boolean supersedes(Optional<Game> cached, Optional<Game> written) {
+        return cached.isPresent() && written.isPresent()
+                && cached.get().getVersion() != null && written.get().getVersion() != null
+                && cached.get().getVersion() >= written.get().getVersion();
+    }
+
+    public void invalidate(String id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+}
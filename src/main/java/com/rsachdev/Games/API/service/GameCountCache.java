@@ -0,0 +1,44 @@
+package com.rsachdev.Games.API.service;
+
+import com.mongodb.MongoException;
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically refreshed estimate of the number of games, taken from collection
+ * metadata rather than by counting documents.
+ */
+@Component
+public class GameCountCache {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    private volatile Long estimatedCount;
+
+    public long getEstimatedCount() {
+        Long count = estimatedCount;
+
+        if (count == null) {
+            count = gameRepository.estimatedCount();
+            estimatedCount = count;
+        }
+
+        return count;
+    }
+
+    @Scheduled(fixedDelayString = "${games.count.refresh-interval-ms}")
+    public void refresh() {
+        try {
+            estimatedCount = gameRepository.estimatedCount();
+        } catch (MongoException me) {
+            LOG.error("Error refreshing estimated count of games - continuing with last estimate", me);
+        }
+    }
+}
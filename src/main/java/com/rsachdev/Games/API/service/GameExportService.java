@@ -0,0 +1,59 @@
+package com.rsachdev.Games.API.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams games from a MongoDB cursor to an output stream as newline-delimited JSON, one game
+ * per line. Only the cursor batch and the generator buffer are held in memory at any time.
+ */
+@Service
+public class GameExportService {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+
+    @Value("${games.export.batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    public void exportGames(GameFilter filter, String afterId, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = mapper.writerFor(Game.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+        long exported = 0;
+
+        try (CloseableIterator<Game> games = gameRepository.streamAfter(filter, afterId, batchSize);
+             JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            while (games.hasNext()) {
+                writer.writeValue(generator, games.next());
+                generator.writeRaw('\n');
+                exported++;
+            }
+        } catch (DataAccessException dae) {
+            LOG.error("Error when exporting games after {} games", exported, dae);
+            throw new IOException("Error when exporting games", dae);
+        }
+    }
+}
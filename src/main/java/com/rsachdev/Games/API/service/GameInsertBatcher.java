@@ -0,0 +1,215 @@
+package com.rsachdev.Games.API.service;
+
+import com.mongodb.DuplicateKeyException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcernResult;
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.repository.GameRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the inserts of individual games into unordered bulk inserts. Callers queue their game
+ * and wait while a single thread collects the queue into batches, flushing a batch once it holds
+ * max-batch-size games or linger-ms after its first game arrived. Each caller then gets back its
+ * own game, or the DuplicateKeyException or MongoException its insert failed with, just as if it
+ * had inserted the game itself.
+ */
+@Component
+public class GameInsertBatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+
+    @Value("${games.insert-batching.enabled}")
+    private boolean enabled;
+
+    @Value("${games.insert-batching.max-batch-size}")
+    private int maxBatchSize;
+
+    @Value("${games.insert-batching.linger-ms}")
+    private long lingerMs;
+
+    @Value("${games.insert-batching.queue-capacity}")
+    private int queueCapacity;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingInsert> queue;
+    private Thread flusher;
+    private DistributionSummary batchSizes;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSizes = DistributionSummary.builder("games.inserts.batch.size")
+                .description("Number of games written by each bulk insert of queued games")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("games.inserts.flush")
+                .description("Time taken to write each bulk insert of queued games")
+                .register(meterRegistry);
+        Gauge.builder("games.inserts.queued", queue, BlockingQueue::size)
+                .description("Games waiting to be written by the next bulk insert")
+                .register(meterRegistry);
+
+        flusher = new Thread(this::flushUntilStopped, "game-inserts");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the game and waits for the batch it joins to be written. As MongoTemplate does for a
+     * single insert, the game starts at version 0.
+     *
+     * @throws ServiceException when the queue is full
+     */
+    public Game insert(Game game) throws ServiceException {
+        game.setVersion(0L);
+        PendingInsert pending = new PendingInsert(game);
+
+        if (!queue.offer(pending)) {
+            throw new ServiceException("Too many games waiting to be inserted - could not create " + game.getTitle());
+        }
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ce.getCause();
+            }
+            throw ce;
+        }
+    }
+
+    private void flushUntilStopped() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+
+                while (batch.size() < maxBatchSize) {
+                    PendingInsert next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+
+        queue.drainTo(batch);
+        fail(batch, new MongoException("Application is shutting down - game was not inserted"));
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        List<Game> games = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            games.add(pending.game);
+        }
+
+        long start = System.nanoTime();
+        Map<Integer, Integer> failures;
+
+        try {
+            failures = gameRepository.insertUnordered(games);
+        } catch (RuntimeException e) {
+            LOG.error("Error when inserting a batch of {} queued games", batch.size(), e);
+            fail(batch, e);
+            return;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingInsert pending = batch.get(i);
+            Integer code = failures.get(i);
+
+            if (code == null) {
+                pending.result.complete(pending.game);
+            } else if (ErrorCategory.fromErrorCode(code) == ErrorCategory.DUPLICATE_KEY) {
+                pending.result.completeExceptionally(duplicateKey(code, pending.game));
+            } else {
+                pending.result.completeExceptionally(new MongoException(code, "Error when inserting game: " + pending.game.getTitle()));
+            }
+        }
+    }
+
+    private static void fail(List<PendingInsert> batch, RuntimeException e) {
+        for (PendingInsert pending : batch) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * The bulk insert reports only the code of each failure, so the exception a single insert would
+     * have thrown is rebuilt from it.
+     */
+    private static DuplicateKeyException duplicateKey(int code, Game game) {
+        BsonDocument response = new BsonDocument("ok", new BsonInt32(1))
+                .append("code", new BsonInt32(code))
+                .append("errmsg", new BsonString("Duplicate key when inserting game: " + game.getTitle()));
+        return new DuplicateKeyException(response, new ServerAddress(), WriteConcernResult.acknowledged(0, false, null));
+    }
+
+    static final class PendingInsert {
+        private final Game game;
+        private final CompletableFuture<Game> result = new CompletableFuture<>();
+
+        PendingInsert(Game game) {
+            this.game = game;
+        }
+    }
+}
@@ -2,27 +2,46 @@ package com.rsachdev.Games.API.service;
 
 import com.mongodb.DuplicateKeyException;
 import com.mongodb.MongoException;
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
 import com.rsachdev.Games.API.exception.ResourceNotFoundException;
 import com.rsachdev.Games.API.exception.ServiceException;
 import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
 import com.rsachdev.Games.API.exception.ValidationException;
-import com.rsachdev.Games.API.model.Developer;
 import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.GameTitles;
 import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.model.TotalCount;
 import com.rsachdev.Games.API.repository.GameRepository;
 import com.rsachdev.Games.API.validation.GameValidator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class GameService {
+    private static final Sort ID_ORDER = Sort.by(Sort.Direction.ASC, "id");
+
+    @Value("${games.list.max-items-per-page}")
+    private int maxItemsPerPage;
+
+    @Value("${games.search.max-results}")
+    private int maxSearchResults;
+
     @Autowired
     private GameRepository gameRepository;
 
@@ -30,25 +49,90 @@ public class GameService {
     private GameValidator gameValidator;
 
     @Autowired
-    private AmazonS3Service amazonS3Service;
+    private DeveloperRegistry developerRegistry;
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private GameCountCache gameCountCache;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    @Autowired
+    private GameInsertBatcher gameInsertBatcher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final SingleFlight<Map.Entry<String, GameFields>, Optional<Game>> gameLoads = new SingleFlight<>();
+
+    @PostConstruct
+    void init() {
+        gameRepository.ensureFilterIndexes();
+
+        FunctionCounter.builder("games.reads.shared", gameLoads, SingleFlight::sharedLoads)
+                .description("Reads of a game that shared a MongoDB query already in flight for the same id")
+                .register(meterRegistry);
+    }
 
     public Game getById(String id) throws ServiceException, ResourceNotFoundException {
-        Optional<Game> game;
+        return getById(id, GameFields.ALL);
+    }
 
+    public Game getById(String id, GameFields fields) throws ServiceException, ResourceNotFoundException {
+        Optional<Game> game = findById(id, fields);
+
+        if (!game.isPresent()) {
+            throw new ResourceNotFoundException("Game " + id + " does not exist");
+        }
+
+        return game.get();
+    }
+
+    /**
+     * Looks a game up without treating a missing id as an exception, for callers where misses are
+     * common. Projected games bypass the GameCache, which holds whole games. Concurrent reads of the
+     * same game that reach MongoDB share a single query, whether or not the cache is enabled.
+     */
+    public Optional<Game> findById(String id, GameFields fields) throws ServiceException {
         try {
-            game = gameRepository.findById(id);
+            if (fields.isAll()) {
+                return gameCache.get(id, key -> load(key, fields));
+            }
+            return load(id, fields);
         } catch (MongoException me) {
             throw new ServiceException("Error when trying to retrieve game with id: " + id, me);
         }
+    }
 
-        if (!game.isPresent()) {
-            throw new ResourceNotFoundException("Game " + id + " does not exist");
+    /**
+     * The version of a game, for checking an ETag. It is taken from the GameCache when that holds
+     * the game, and otherwise read from MongoDB without the rest of the game.
+     */
+    public Optional<Long> findVersion(String id) throws ServiceException {
+        Optional<Game> cached = gameCache.getIfPresent(id);
+
+        if (cached.isPresent()) {
+            return cached.map(Game::getVersion);
         }
+        return findById(id, GameFields.VERSION).map(Game::getVersion);
+    }
 
-        return game.get();
+    private Optional<Game> load(String id, GameFields fields) {
+        return gameLoads.load(new SimpleImmutableEntry<>(id, fields), key -> gameRepository.findProjected(key.getKey(), key.getValue()));
     }
 
     public Game createGame(Game game, String developer) throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        return createGame(game, developer, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Creates the game under an id reserved for it in advance, so that a retry of the same create
+     * fails on the existing game's _id instead of creating it again.
+     */
+    public Game createGame(Game game, String developer, String id) throws ServiceException, UnauthorisedDeveloperException, ValidationException {
         Game createdGame;
 
         List<String> errors = gameValidator.validateNotNullOrEmpty(game);
@@ -56,35 +140,54 @@ public class GameService {
             throw new ValidationException(errors.toString());
         }
 
-        if(developer == null || !isAuthorisedDeveloper(developer)  || validateDeveloperOfGame(game, developer)) {
+        if(developer == null || !developerRegistry.isAuthorised(developer)  || validateDeveloperOfGame(game, developer)) {
             throw new UnauthorisedDeveloperException("Developer not authorised to create game");
         }
 
-        String id = UUID.randomUUID().toString();
         game.setId(id);
 
         try {
-            createdGame = gameRepository.insert(game);
+            createdGame = gameInsertBatcher.isEnabled() ? gameInsertBatcher.insert(game) : gameRepository.insert(game);
         } catch (DuplicateKeyException dke) {
             throw dke;
         } catch (MongoException me) {
             throw new ServiceException("Error when trying to create game: " + game, me);
         }
 
+        gameCache.put(id, Optional.of(createdGame));
+        titleSearchIndex.index(createdGame);
         return createdGame;
     }
 
-    public Games listAllGames(String startIndex, String itemsPerPage) throws ServiceException {
+    public Games listAllGames(GameFilter filter, GameFields fields, String startIndex, String itemsPerPage, String includeTotal) throws ServiceException, ValidationException {
         Games games = new Games();
+        TotalCount totalCount = TotalCount.fromParameter(includeTotal);
 
-        Pageable pageable = PageRequest.of(Integer.parseInt(startIndex), Integer.parseInt(itemsPerPage));
+        Pageable pageable = PageRequest.of(PageParameters.startIndex(startIndex),
+                PageParameters.itemsPerPage(itemsPerPage, maxItemsPerPage), ID_ORDER);
 
         try {
-            Page<Game> gamePage = gameRepository.findAll(pageable);
+            Slice<Game> gamePage;
+
+            if (filter.isEmpty() && fields.isAll()) {
+                gamePage = gameRepository.findAllBy(pageable);
+            } else {
+                gamePage = gameRepository.findMatching(filter, fields, pageable);
+            }
+
+            // Filtered counts are served by the same indexes as the query, and there is
+            // no collection metadata to estimate them from, so they are always exact.
+            if (totalCount == TotalCount.EXACT || (totalCount == TotalCount.ESTIMATED && !filter.isEmpty())) {
+                games.setTotalResults(gameRepository.countMatching(filter));
+                games.setTotalResultsExact(true);
+            } else if (totalCount == TotalCount.ESTIMATED) {
+                games.setTotalResults(gameCountCache.getEstimatedCount());
+                games.setTotalResultsExact(false);
+            }
+
             games.setItems(gamePage.getContent());
             games.setItemsPerPage(gamePage.getSize());
-            games.setStartIndex(gamePage.getPageable().getPageNumber());
-            games.setTotalResults(gamePage.getTotalElements());
+            games.setStartIndex((long) gamePage.getPageable().getPageNumber());
 
         } catch (MongoException me) {
             throw new ServiceException("Error when trying to retrieve all games: ", me);
@@ -93,47 +196,129 @@ public class GameService {
         return games;
     }
 
-    public void updateGame(Game game, String id, String developer) throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException, ValidationException {
-        Game existingGame = getById(id);
+    public Games listGamesAfter(GameFilter filter, GameFields fields, String cursor, String itemsPerPage) throws ServiceException, ValidationException {
+        Games games = new Games();
+        List<Game> items;
+
+        int pageSize = PageParameters.itemsPerPage(itemsPerPage, maxItemsPerPage);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        String afterId = cursor.isEmpty() ? null : PageCursor.decode(cursor);
+
+        try {
+            if (!filter.isEmpty() || !fields.isAll()) {
+                items = gameRepository.findMatchingAfter(filter, fields, afterId, pageSize + 1);
+            } else if (afterId == null) {
+                items = gameRepository.findAllByOrderByIdAsc(pageable);
+            } else {
+                items = gameRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+            }
+        } catch (MongoException me) {
+            throw new ServiceException("Error when trying to retrieve games after cursor: " + cursor, me);
+        }
+
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            games.setNext(PageCursor.encode(items.get(pageSize - 1).getId()));
+        }
+
+        games.setItems(items);
+        games.setItemsPerPage(pageSize);
+
+        return games;
+    }
+
+    public GameTitles searchTitles(String query, String limit) throws ServiceException, ValidationException {
+        if (query == null || query.trim().isEmpty()) {
+            throw new ValidationException("q must not be empty");
+        }
+
+        return new GameTitles(titleSearchIndex.search(query, PageParameters.limit(limit, maxSearchResults)));
+    }
+
+    public Game updateGame(Game game, String id, String developer, Long expectedVersion) throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException, ValidationException, PreconditionFailedException {
+        Game updatedGame;
 
         List<String> errors = gameValidator.validateNotNullOrEmpty(game);
         if(!errors.isEmpty()) {
             throw new ValidationException(errors.toString());
         }
 
-        if(developer == null || validateDeveloperOfGame(existingGame, developer)) {
+        if(developer == null) {
             throw new UnauthorisedDeveloperException("Developer not authorised to update this game");
         }
 
         game.setId(id);
 
+        // Only a failed write evicts the game. A successful one is put below, where an update that
+        // finished out of order cannot replace a newer version another update has already cached.
         try {
-            gameRepository.save(game);
+            updatedGame = gameRepository.updateIfDeveloper(game, developer, expectedVersion);
         } catch (MongoException me) {
+            gameCache.invalidate(id);
             throw new ServiceException("Error occurred when updating the game: " + game.getTitle());
+        } catch (RuntimeException e) {
+            gameCache.invalidate(id);
+            throw e;
         }
+
+        if (updatedGame == null) {
+            gameCache.invalidate(id);
+            explainRejectedWrite(id, developer, expectedVersion, "update");
+        }
+
+        gameCache.put(id, Optional.of(updatedGame));
+        titleSearchIndex.index(updatedGame);
+        return updatedGame;
     }
 
-    public void deleteGame(String id, String developer) throws ResourceNotFoundException, ServiceException, UnauthorisedDeveloperException {
-        Game existingGame = getById(id);
+    public void deleteGame(String id, String developer, Long expectedVersion) throws ResourceNotFoundException, ServiceException, UnauthorisedDeveloperException, PreconditionFailedException {
+        boolean deleted;
 
-        if(developer == null || validateDeveloperOfGame(existingGame, developer)) {
+        if(developer == null) {
             throw new UnauthorisedDeveloperException("Developer not authorised to delete this game");
         }
 
         try {
-            gameRepository.delete(existingGame);
+            deleted = gameRepository.deleteIfDeveloper(id, developer, expectedVersion);
         } catch (MongoException me) {
-            throw new ServiceException("Error occurred when deleting game: " + existingGame.getId());
+            gameCache.invalidate(id);
+            throw new ServiceException("Error occurred when deleting game: " + id);
+        } catch (RuntimeException e) {
+            gameCache.invalidate(id);
+            throw e;
+        }
+
+        if (!deleted) {
+            gameCache.invalidate(id);
+            explainRejectedWrite(id, developer, expectedVersion, "delete");
         }
+
+        gameCache.put(id, Optional.empty());
+        titleSearchIndex.remove(id);
     }
 
-    private boolean isAuthorisedDeveloper(String developer) throws ServiceException {
-        List<Developer> authorisedDevelopers = amazonS3Service.getAuthorisedDevelopers();
+    private void explainRejectedWrite(String id, String developer, Long expectedVersion, String action) throws ServiceException, ResourceNotFoundException, UnauthorisedDeveloperException, PreconditionFailedException {
+        Optional<Game> existingGame;
+
+        try {
+            existingGame = gameRepository.findById(id);
+        } catch (MongoException me) {
+            throw new ServiceException("Error when trying to retrieve game with id: " + id, me);
+        }
+
+        if (!existingGame.isPresent()) {
+            throw new ResourceNotFoundException("Game " + id + " does not exist");
+        }
+
+        if (validateDeveloperOfGame(existingGame.get(), developer)) {
+            throw new UnauthorisedDeveloperException("Developer not authorised to " + action + " this game");
+        }
+
+        if (expectedVersion != null) {
+            throw new PreconditionFailedException("Game " + id + " is no longer at version " + expectedVersion);
+        }
 
-        return authorisedDevelopers
-                .stream()
-                .anyMatch(d -> developer.trim().toLowerCase().equals(d.getName().trim().toLowerCase()));
+        throw new ServiceException("Game " + id + " was modified concurrently - could not " + action);
     }
 
     private boolean validateDeveloperOfGame(Game game, String developer) {
@@ -0,0 +1,221 @@
+package com.rsachdev.Games.API.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.BatchResult;
+import com.rsachdev.Games.API.model.IdempotencyRecord;
+import com.rsachdev.Games.API.repository.IdempotencyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Records of writes made with an Idempotency-Key, kept in the idempotency_keys collection until a
+ * TTL index removes them ttl-seconds after they were created. Completed records are also held in
+ * a Caffeine cache for as long as they remain in MongoDB, so most retries are answered without a
+ * round trip.
+ *
+ * A write claims its key by inserting an incomplete record, which the unique _id makes atomic
+ * across instances, along with the ids its games will be created with. A write that fails with a
+ * client error releases its key, as nothing was written. One that fails otherwise may have been
+ * applied, so its key is abandoned instead and a retry of the same request claims it again with
+ * the same game ids. A game that was in fact created then fails its insert on _id rather than being
+ * created twice. A record left incomplete for longer than lease-ms belongs to a write that died
+ * without completing or abandoning it, and may be claimed again in the same way.
+ */
+@Component
+public class IdempotencyStore {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+    private static final String CACHE_NAME = "idempotency-keys";
+
+    @Value("${games.idempotency.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${games.idempotency.lease-ms}")
+    private long leaseMs;
+
+    @Value("${games.idempotency.cache.maximum-size}")
+    private long maximumSize;
+
+    @Autowired
+    private IdempotencyRepository idempotencyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    private Cache<String, IdempotencyRecord> completed;
+
+    @PostConstruct
+    void init() {
+        idempotencyRepository.ensureExpiryIndex(ttlSeconds);
+
+        completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, IdempotencyRecord>() {
+                    @Override
+                    public long expireAfterCreate(String id, IdempotencyRecord record, long currentTime) {
+                        long expiresAt = record.getCreatedAt().getTime() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - clock.getAsLong()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, IdempotencyRecord record, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, record, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, IdempotencyRecord record, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, CACHE_NAME);
+    }
+
+    /**
+     * The completed record for the id if this instance holds it, without going to MongoDB.
+     */
+    public Optional<IdempotencyRecord> getCompleted(String id) {
+        return Optional.ofNullable(completed.getIfPresent(id));
+    }
+
+    /**
+     * Claims the id for a write with the given fingerprint, reserving gameIds for its games unless
+     * an earlier attempt at the same request reserved others.
+     */
+    public Claim claim(String id, String fingerprint, List<String> gameIds) throws ServiceException {
+        Date now = new Date(clock.getAsLong());
+        IdempotencyRecord record = new IdempotencyRecord(id, fingerprint, gameIds, now);
+
+        try {
+            idempotencyRepository.insert(record);
+            return Claim.owned(record);
+        } catch (DuplicateKeyException dke) {
+            LOG.debug("Idempotency key {} has already been used", id);
+        } catch (DataAccessException dae) {
+            throw new ServiceException("Error when trying to claim idempotency key: " + id, dae);
+        }
+
+        try {
+            IdempotencyRecord existing = idempotencyRepository.findById(id).orElse(null);
+
+            if (existing == null) {
+                // Removed since the insert failed, either released or expired, so try once more.
+                idempotencyRepository.insert(record);
+                return Claim.owned(record);
+            }
+            if (existing.isCompleted()) {
+                completed.put(id, existing);
+                return Claim.held(existing);
+            }
+
+            Date abandonedBefore = new Date(now.getTime() - leaseMs);
+            if (existing.getFingerprint().equals(fingerprint)
+                    && (existing.isAbandoned() || existing.getCreatedAt().before(abandonedBefore))) {
+                IdempotencyRecord reclaimed = idempotencyRepository.claimAbandoned(id, fingerprint, abandonedBefore, now);
+                if (reclaimed != null) {
+                    LOG.info("Reclaimed idempotency key {} from a write that did not complete", id);
+                    return Claim.owned(reclaimed);
+                }
+            }
+            return Claim.held(existing);
+        } catch (DuplicateKeyException dke) {
+            throw new ServiceException("Idempotency key " + id + " was claimed concurrently", dke);
+        } catch (DataAccessException dae) {
+            throw new ServiceException("Error when trying to claim idempotency key: " + id, dae);
+        }
+    }
+
+    /**
+     * Stores the response of a claimed write, restarting its time to live. The write itself has
+     * already happened, so a failure here is logged rather than thrown, leaving the record to be
+     * claimed again once its lease runs out by a retry whose games then fail on their _id.
+     */
+    public void complete(String id, String fingerprint, int status, String location, BatchResult batchResult) {
+        IdempotencyRecord record = new IdempotencyRecord(id, fingerprint, new Date(clock.getAsLong()));
+        record.setStatus(status);
+        record.setLocation(location);
+        record.setBatchResult(batchResult);
+        completed.put(id, record);
+
+        try {
+            idempotencyRepository.save(record);
+        } catch (DataAccessException dae) {
+            LOG.error("Error when storing the response for idempotency key {}", id, dae);
+        }
+    }
+
+    /**
+     * Gives up a claimed id whose write was refused before anything was written, so that the
+     * request may be corrected and sent again.
+     */
+    public void release(String id) {
+        try {
+            idempotencyRepository.deleteById(id);
+        } catch (DataAccessException dae) {
+            LOG.error("Error when releasing idempotency key {}", id, dae);
+        }
+    }
+
+    /**
+     * Gives up a claimed id whose write failed and may have been applied, keeping its game ids for
+     * a retry to claim. A failure here leaves the retry to wait for the lease to run out.
+     */
+    public void abandon(String id) {
+        try {
+            idempotencyRepository.abandon(id);
+        } catch (DataAccessException dae) {
+            LOG.error("Error when abandoning idempotency key {}", id, dae);
+        }
+    }
+
+    /**
+     * The outcome of claiming an id: either the caller now owns its record and must complete,
+     * release or abandon it, or the record belongs to another request.
+     */
+    public static final class Claim {
+        private final IdempotencyRecord record;
+        private final boolean owned;
+
+        private Claim(IdempotencyRecord record, boolean owned) {
+            this.record = record;
+            this.owned = owned;
+        }
+
+        public static Claim owned(IdempotencyRecord record) {
+            return new Claim(record, true);
+        }
+
+        public static Claim held(IdempotencyRecord record) {
+            return new Claim(record, false);
+        }
+
+        public IdempotencyRecord getRecord() {
+            return record;
+        }
+
+        public boolean isOwned() {
+            return owned;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination token. A cursor wraps the id of the last game on a page;
+ * the next page is every game whose id sorts after it.
+ */
+public final class PageCursor {
+
+    private PageCursor() {
+    }
+
+    public static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(String cursor) throws ValidationException {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException iae) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.exception.ValidationException;
+
+/**
+ * Parses the start-index, items-per-page and search limit query parameters, rejecting values that
+ * cannot describe a page rather than letting them fail deeper down as a server error.
+ */
+public final class PageParameters {
+
+    private PageParameters() {
+    }
+
+    public static int startIndex(String startIndex) throws ValidationException {
+        int value = parse("start-index", startIndex);
+
+        if (value < 0) {
+            throw new ValidationException("start-index must not be negative");
+        }
+        return value;
+    }
+
+    public static int itemsPerPage(String itemsPerPage, int maxItemsPerPage) throws ValidationException {
+        int value = parse("items-per-page", itemsPerPage);
+
+        if (value < 1 || value > maxItemsPerPage) {
+            throw new ValidationException("items-per-page must be between 1 and " + maxItemsPerPage);
+        }
+        return value;
+    }
+
+    public static int limit(String limit, int maxResults) throws ValidationException {
+        int value = parse("limit", limit);
+
+        if (value < 1 || value > maxResults) {
+            throw new ValidationException("limit must be between 1 and " + maxResults);
+        }
+        return value;
+    }
+
+    private static int parse(String name, String value) throws ValidationException {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException nfe) {
+            throw new ValidationException(name + " must be a whole number: " + value);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
+import com.rsachdev.Games.API.exception.ResourceNotFoundException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.GameTitles;
+import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.model.TotalCount;
+import com.rsachdev.Games.API.repository.ReactiveGameRepository;
+import com.rsachdev.Games.API.validation.GameValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link GameService}, used when the application runs as a reactive
+ * web application. Failures are signalled as the same exceptions GameService throws.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGameService {
+    private static final Sort ID_ORDER = Sort.by(Sort.Direction.ASC, "id");
+
+    @Value("${games.list.max-items-per-page}")
+    private int maxItemsPerPage;
+
+    @Value("${games.search.max-results}")
+    private int maxSearchResults;
+
+    @Autowired
+    private ReactiveGameRepository reactiveGameRepository;
+
+    @Autowired
+    private GameValidator gameValidator;
+
+    @Autowired
+    private DeveloperRegistry developerRegistry;
+
+    @Autowired
+    private TitleSearchIndex titleSearchIndex;
+
+    /**
+     * Emits the game, or completes empty when it does not exist.
+     */
+    public Mono<Game> getById(String id, GameFields fields) {
+        return fields.isAll() ? reactiveGameRepository.findById(id) : reactiveGameRepository.findProjected(id, fields);
+    }
+
+    public Mono<Game> createGame(Game game, String developer) {
+        List<String> errors = gameValidator.validateNotNullOrEmpty(game);
+        if(!errors.isEmpty()) {
+            return Mono.error(new ValidationException(errors.toString()));
+        }
+
+        if(developer == null || validateDeveloperOfGame(game, developer)) {
+            return Mono.error(new UnauthorisedDeveloperException("Developer not authorised to create game"));
+        }
+
+        return isAuthorised(developer).flatMap(authorised -> {
+            if (!authorised) {
+                return Mono.error(new UnauthorisedDeveloperException("Developer not authorised to create game"));
+            }
+
+            game.setId(UUID.randomUUID().toString());
+            return reactiveGameRepository.insert(game).doOnNext(titleSearchIndex::index);
+        });
+    }
+
+    public Mono<Games> listAllGames(GameFilter filter, GameFields fields, String startIndex, String itemsPerPage, String includeTotal) {
+        TotalCount totalCount;
+        Pageable pageable;
+
+        try {
+            totalCount = TotalCount.fromParameter(includeTotal);
+            pageable = PageRequest.of(PageParameters.startIndex(startIndex),
+                    PageParameters.itemsPerPage(itemsPerPage, maxItemsPerPage), ID_ORDER);
+        } catch (ValidationException ve) {
+            return Mono.error(ve);
+        }
+
+        Flux<Game> found = filter.isEmpty() && fields.isAll()
+                ? reactiveGameRepository.findAllBy(pageable)
+                : reactiveGameRepository.findMatching(filter, fields, pageable);
+
+        Mono<Games> page = found.collectList().map(items -> {
+            Games games = new Games();
+            games.setItems(items);
+            games.setItemsPerPage(pageable.getPageSize());
+            games.setStartIndex((long) pageable.getPageNumber());
+            return games;
+        });
+
+        if (totalCount == TotalCount.NONE) {
+            return page;
+        }
+
+        boolean exact = totalCount == TotalCount.EXACT || !filter.isEmpty();
+        Mono<Long> count;
+
+        if (!filter.isEmpty()) {
+            count = reactiveGameRepository.countMatching(filter);
+        } else if (exact) {
+            count = reactiveGameRepository.count();
+        } else {
+            count = reactiveGameRepository.estimatedCount();
+        }
+
+        return Mono.zip(page, count, (games, total) -> {
+            games.setTotalResults(total);
+            games.setTotalResultsExact(exact);
+            return games;
+        });
+    }
+
+    public Mono<Games> listGamesAfter(GameFilter filter, GameFields fields, String cursor, String itemsPerPage) {
+        int pageSize;
+        String afterId;
+        Flux<Game> items;
+
+        try {
+            pageSize = PageParameters.itemsPerPage(itemsPerPage, maxItemsPerPage);
+            afterId = cursor.isEmpty() ? null : PageCursor.decode(cursor);
+        } catch (ValidationException ve) {
+            return Mono.error(ve);
+        }
+
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        if (!filter.isEmpty() || !fields.isAll()) {
+            items = reactiveGameRepository.findMatchingAfter(filter, fields, afterId, pageSize + 1);
+        } else if (afterId == null) {
+            items = reactiveGameRepository.findAllByOrderByIdAsc(pageable);
+        } else {
+            items = reactiveGameRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+
+        return items.collectList().map(list -> {
+            Games games = new Games();
+
+            if (list.size() > pageSize) {
+                list = list.subList(0, pageSize);
+                games.setNext(PageCursor.encode(list.get(pageSize - 1).getId()));
+            }
+
+            games.setItems(list);
+            games.setItemsPerPage(pageSize);
+            return games;
+        });
+    }
+
+    public Mono<GameTitles> searchTitles(String query, String limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return Mono.error(new ValidationException("q must not be empty"));
+        }
+
+        int maxResults;
+        try {
+            maxResults = PageParameters.limit(limit, maxSearchResults);
+        } catch (ValidationException ve) {
+            return Mono.error(ve);
+        }
+
+        return Mono.fromCallable(() -> new GameTitles(titleSearchIndex.search(query, maxResults)));
+    }
+
+    public Mono<Game> updateGame(Game game, String id, String developer, Long expectedVersion) {
+        List<String> errors = gameValidator.validateNotNullOrEmpty(game);
+        if(!errors.isEmpty()) {
+            return Mono.error(new ValidationException(errors.toString()));
+        }
+
+        if(developer == null) {
+            return Mono.error(new UnauthorisedDeveloperException("Developer not authorised to update this game"));
+        }
+
+        game.setId(id);
+
+        return reactiveGameRepository.updateIfDeveloper(game, developer, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> explainRejectedWrite(id, developer, expectedVersion, "update")))
+                .doOnNext(titleSearchIndex::index);
+    }
+
+    public Mono<Void> deleteGame(String id, String developer, Long expectedVersion) {
+        if(developer == null) {
+            return Mono.error(new UnauthorisedDeveloperException("Developer not authorised to delete this game"));
+        }
+
+        return reactiveGameRepository.deleteIfDeveloper(id, developer, expectedVersion)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : explainRejectedWrite(id, developer, expectedVersion, "delete"))
+                .doOnSuccess(done -> titleSearchIndex.remove(id));
+    }
+
+    /**
+     * The S3 client is blocking, so a cold load of the developer list is moved off the calling
+     * thread; once a snapshot is held the check is answered in place.
+     */
+    private Mono<Boolean> isAuthorised(String developer) {
+        Mono<Boolean> authorised = Mono.fromCallable(() -> developerRegistry.isAuthorised(developer));
+        return developerRegistry.isLoaded() ? authorised : authorised.subscribeOn(Schedulers.elastic());
+    }
+
+    private <T> Mono<T> explainRejectedWrite(String id, String developer, Long expectedVersion, String action) {
+        return reactiveGameRepository.findById(id)
+                .flatMap(existingGame -> {
+                    if (validateDeveloperOfGame(existingGame, developer)) {
+                        return Mono.<T>error(new UnauthorisedDeveloperException("Developer not authorised to " + action + " this game"));
+                    }
+
+                    if (expectedVersion != null) {
+                        return Mono.<T>error(new PreconditionFailedException("Game " + id + " is no longer at version " + expectedVersion));
+                    }
+
+                    return Mono.<T>error(new ServiceException("Game " + id + " was modified concurrently - could not " + action));
+                })
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new ResourceNotFoundException("Game " + id + " does not exist"))));
+    }
+
+    private boolean validateDeveloperOfGame(Game game, String developer) {
+        return !game.getDeveloper().trim().toLowerCase().equals(developer.trim().toLowerCase());
+    }
+}
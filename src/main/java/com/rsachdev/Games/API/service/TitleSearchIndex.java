@@ -0,0 +1,269 @@
+package com.rsachdev.Games.API.service;
+
+import com.mongodb.MongoException;
+import com.rsachdev.Games.API.GamesApiApplication;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.GameTitle;
+import com.rsachdev.Games.API.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index from title tokens to game ids, answering title searches without
+ * touching MongoDB. Every token of a query must match a whole title token, except the last,
+ * which may match any token it is a prefix of, so results narrow as the user types.
+ *
+ * The index is built from the games collection when the application starts and rebuilt every
+ * games.search.rebuild-interval-ms to pick up writes made by other instances. Writes made
+ * through this instance are applied as they happen.
+ */
+@Component
+public class TitleSearchIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(GamesApiApplication.APPLICATION_NAMESPACE);
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<GameTitle> BY_TITLE =
+            Comparator.comparing(GameTitle::getTitle, String.CASE_INSENSITIVE_ORDER).thenComparing(GameTitle::getId);
+
+    @Value("${games.search.max-results}")
+    private int maxResults;
+
+    @Value("${games.search.load-batch-size}")
+    private int loadBatchSize;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    private volatile Titles titles;
+
+    // Changes made while a rebuild is reading the collection, replayed onto the rebuilt index.
+    private List<Consumer<Titles>> pending;
+
+    public List<GameTitle> search(String query, int limit) throws ServiceException {
+        Titles current = titles;
+
+        if (current == null) {
+            throw new ServiceException("Title search index has not been loaded yet");
+        }
+
+        return current.search(tokenize(query), Math.max(0, Math.min(limit, maxResults)));
+    }
+
+    public void index(Game game) {
+        apply(titles -> titles.put(game.getId(), game.getTitle()));
+    }
+
+    public void remove(String id) {
+        apply(titles -> titles.remove(id));
+    }
+
+    @Scheduled(fixedDelayString = "${games.search.rebuild-interval-ms}")
+    public void rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+
+        Titles rebuilt = new Titles();
+
+        try (CloseableIterator<Game> games = gameRepository.streamAfter(new GameFilter(), null, loadBatchSize)) {
+            while (games.hasNext()) {
+                Game game = games.next();
+                rebuilt.put(game.getId(), game.getTitle());
+            }
+        } catch (MongoException | DataAccessException e) {
+            LOG.error("Error loading game titles for search - continuing with the last index", e);
+            synchronized (this) {
+                pending = null;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            pending.forEach(change -> change.accept(rebuilt));
+            pending = null;
+            titles = rebuilt;
+        }
+
+        LOG.info("Loaded {} game titles for search", rebuilt.size());
+    }
+
+    private synchronized void apply(Consumer<Titles> change) {
+        if (titles != null) {
+            change.accept(titles);
+        }
+
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+
+        if (text != null) {
+            for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Writers are serialised by the enclosing index; readers only use the concurrent maps.
+     */
+    private static final class Titles {
+        private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+        private final Map<String, GameTitle> entries = new ConcurrentHashMap<>();
+
+        void put(String id, String title) {
+            remove(id);
+
+            if (title == null) {
+                return;
+            }
+
+            entries.put(id, new GameTitle(id, title));
+            for (String token : tokenize(title)) {
+                postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remove(String id) {
+            GameTitle existing = entries.remove(id);
+
+            if (existing == null) {
+                return;
+            }
+
+            for (String token : tokenize(existing.getTitle())) {
+                Set<String> ids = postings.get(token);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(token, ids);
+                    }
+                }
+            }
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        List<GameTitle> search(List<String> tokens, int limit) {
+            if (tokens.isEmpty() || limit == 0) {
+                return Collections.emptyList();
+            }
+
+            String prefix = tokens.get(tokens.size() - 1);
+            List<String> whole = tokens.subList(0, tokens.size() - 1);
+            Set<String> ids = whole.isEmpty() ? completions(prefix, limit) : matches(whole, prefix, limit);
+
+            List<GameTitle> results = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                GameTitle title = entries.get(id);
+                if (title != null) {
+                    results.add(title);
+                }
+            }
+
+            results.sort(BY_TITLE);
+            return results;
+        }
+
+        /**
+         * Ids of games with a token starting with prefix, taking tokens in order so that an
+         * exact match comes before longer completions.
+         */
+        private Set<String> completions(String prefix, int limit) {
+            Set<String> ids = new LinkedHashSet<>();
+
+            for (Set<String> tokenIds : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                for (String id : tokenIds) {
+                    ids.add(id);
+                    if (ids.size() == limit) {
+                        return ids;
+                    }
+                }
+            }
+
+            return ids;
+        }
+
+        /**
+         * Ids of games containing every whole token and a token starting with prefix. Only the
+         * smallest posting list is walked; the other tokens are checked by lookup.
+         */
+        private Set<String> matches(List<String> whole, String prefix, int limit) {
+            List<Set<String>> required = new ArrayList<>(whole.size());
+
+            for (String token : whole) {
+                Set<String> tokenIds = postings.get(token);
+                if (tokenIds == null) {
+                    return Collections.emptySet();
+                }
+                required.add(tokenIds);
+            }
+
+            required.sort(Comparator.comparingInt(Set::size));
+            Set<String> ids = new LinkedHashSet<>();
+
+            for (String id : required.get(0)) {
+                if (containsAll(required, id) && hasTokenStartingWith(id, prefix)) {
+                    ids.add(id);
+                    if (ids.size() == limit) {
+                        break;
+                    }
+                }
+            }
+
+            return ids;
+        }
+
+        private boolean containsAll(List<Set<String>> required, String id) {
+            for (int i = 1; i < required.size(); i++) {
+                if (!required.get(i).contains(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasTokenStartingWith(String id, String prefix) {
+            GameTitle title = entries.get(id);
+
+            if (title != null) {
+                for (String token : tokenize(title.getTitle())) {
+                    if (token.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.rsachdev.Games.API.config;
+
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.Games;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EncodingConfigTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    @Mock
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @InjectMocks
+    private EncodingConfig encodingConfig;
+
+    @Test
+    @DisplayName("Test binary converters replace the defaults and follow JSON")
+    void extendMessageConverters() {
+        when(objectMapperBuilder.getObject()).thenAnswer(invocation -> Jackson2ObjectMapperBuilder.json());
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(Arrays.asList(
+                new MappingJackson2HttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter()));
+
+        encodingConfig.extendMessageConverters(converters);
+
+        assertEquals(4, converters.size());
+        assertTrue(converters.get(0) instanceof MappingJackson2HttpMessageConverter);
+    }
+
+    @Test
+    @DisplayName("Test a page survives a round trip through each binary encoding")
+    void binaryRoundTrip() throws IOException {
+        when(objectMapperBuilder.getObject()).thenAnswer(invocation -> Jackson2ObjectMapperBuilder.json());
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        encodingConfig.extendMessageConverters(converters);
+
+        for (MediaType mediaType : Arrays.asList(SMILE, CBOR, MessagePackHttpMessageConverter.APPLICATION_MSGPACK)) {
+            Games games = roundTrip(converter(converters, mediaType), mediaType, createGames());
+
+            assertEquals("title", games.getItems().get(0).getTitle());
+            assertEquals(LocalDate.of(2019, 7, 16), games.getItems().get(0).getReleaseDate());
+            assertEquals(Long.valueOf(1L), games.getTotalResults());
+        }
+    }
+
+    @Test
+    @DisplayName("Test GET responses vary on Accept and writes do not")
+    void varyOnAccept() {
+        EncodingConfig.VaryOnAccept interceptor = new EncodingConfig.VaryOnAccept();
+        MockHttpServletResponse get = new MockHttpServletResponse();
+        MockHttpServletResponse post = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/games"), get, null));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/games"), post, null));
+
+        assertEquals(HttpHeaders.ACCEPT, get.getHeader(HttpHeaders.VARY));
+        assertNull(post.getHeader(HttpHeaders.VARY));
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Games> converter(List<HttpMessageConverter<?>> converters, MediaType mediaType) {
+        return (HttpMessageConverter<Games>) converters.stream()
+                .filter(converter -> converter.canWrite(Games.class, mediaType))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No converter for " + mediaType));
+    }
+
+    private Games roundTrip(HttpMessageConverter<Games> converter, MediaType mediaType, Games games) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(games, mediaType, output);
+
+        MockHttpInputMessage input = new MockHttpInputMessage(output.getBodyAsBytes());
+        input.getHeaders().setContentType(mediaType);
+        return converter.read(Games.class, input);
+    }
+
+    private Games createGames() {
+        Game game = new Game();
+        game.setId("id");
+        game.setTitle("title");
+        game.setDeveloper("developer");
+        game.setReleaseDate(LocalDate.of(2019, 7, 16));
+        game.setGenres(Arrays.asList("Sports", "Football"));
+
+        Games games = new Games();
+        games.setItems(Collections.singletonList(game));
+        games.setItemsPerPage(10);
+        games.setTotalResults(1L);
+        return games;
+    }
+}
@@ -0,0 +1,63 @@
+package com.rsachdev.Games.API.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MongoCommandMetricsTest {
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MongoCommandMetrics mongoCommandMetrics = new MongoCommandMetrics(meterRegistry);
+
+    @Test
+    @DisplayName("Test a command is timed against its collection")
+    void commandTimedByCollection() {
+        BsonDocument find = new BsonDocument("find", new BsonString("games")).append("limit", new BsonInt32(10));
+
+        mongoCommandMetrics.commandStarted(new CommandStartedEvent(1, CONNECTION, "games", "find", find));
+        mongoCommandMetrics.commandSucceeded(new CommandSucceededEvent(1, CONNECTION, "find", new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(3)));
+
+        Timer timer = meterRegistry.get("mongodb.commands")
+                .tags("command", "find", "collection", "games", "outcome", "success")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(3, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    @DisplayName("Test a failed command is timed as a failure")
+    void failedCommandTimed() {
+        BsonDocument delete = new BsonDocument("delete", new BsonString("games"));
+
+        mongoCommandMetrics.commandStarted(new CommandStartedEvent(2, CONNECTION, "games", "delete", delete));
+        mongoCommandMetrics.commandFailed(new CommandFailedEvent(2, CONNECTION, "delete", 1000, new IllegalStateException()));
+
+        assertEquals(1, meterRegistry.get("mongodb.commands").tags("collection", "games", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("Test the collection of getMore and server commands")
+    void collectionOfOtherCommands() {
+        BsonDocument getMore = new BsonDocument("getMore", new BsonInt64(42)).append("collection", new BsonString("games"));
+
+        assertEquals("games", MongoCommandMetrics.collection(getMore, "getMore"));
+        assertEquals("none", MongoCommandMetrics.collection(new BsonDocument("isMaster", new BsonInt32(1)), "isMaster"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.rsachdev.Games.API.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MongoConfigTest {
+
+    @Test
+    @DisplayName("Test secondary reads are bounded by the max staleness")
+    void secondaryPreferredWithMaxStaleness() {
+        TaggableReadPreference readPreference = (TaggableReadPreference) MongoConfig.readPreference("secondaryPreferred", 90);
+
+        assertEquals("secondaryPreferred", readPreference.getName());
+        assertEquals(Long.valueOf(90), readPreference.getMaxStaleness(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Test secondary reads without a max staleness are unbounded")
+    void secondaryPreferredUnbounded() {
+        TaggableReadPreference readPreference = (TaggableReadPreference) MongoConfig.readPreference("secondaryPreferred", 0);
+
+        assertNull(readPreference.getMaxStaleness(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Test primary reads ignore the max staleness")
+    void primaryIgnoresMaxStaleness() {
+        assertEquals(ReadPreference.primary(), MongoConfig.readPreference("primary", 90));
+    }
+
+    @Test
+    @DisplayName("Test an unknown read preference is rejected")
+    void unknownReadPreference() {
+        assertThrows(IllegalArgumentException.class, () -> MongoConfig.readPreference("nearestish", 90));
+    }
+}
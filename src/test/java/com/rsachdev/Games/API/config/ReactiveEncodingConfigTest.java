@@ -0,0 +1,39 @@
+package com.rsachdev.Games.API.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ReactiveEncodingConfigTest {
+    private final WebFilter varyOnAccept = new ReactiveEncodingConfig().varyOnAccept();
+
+    @Test
+    @DisplayName("Test GET responses for games vary on Accept")
+    void getVariesOnAccept() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/games/id").build());
+
+        varyOnAccept.filter(exchange, filtered -> Mono.empty()).block();
+
+        assertEquals(HttpHeaders.ACCEPT, exchange.getResponse().getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    @DisplayName("Test writes and other paths are left alone")
+    void othersUnchanged() {
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/games").build());
+        MockServerWebExchange health = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health").build());
+
+        varyOnAccept.filter(post, filtered -> Mono.empty()).block();
+        varyOnAccept.filter(health, filtered -> Mono.empty()).block();
+
+        assertNull(post.getResponse().getHeaders().getFirst(HttpHeaders.VARY));
+        assertNull(health.getResponse().getHeaders().getFirst(HttpHeaders.VARY));
+    }
+}
@@ -0,0 +1,78 @@
+package com.rsachdev.Games.API.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AccessLogFilterTest {
+    private static final String ID = "id";
+    private static final String DEVELOPER = "EA";
+
+    @Mock
+    private AccessLog accessLog;
+
+    @InjectMocks
+    private AccessLogFilter accessLogFilter;
+
+    @Test
+    @DisplayName("Test a request is recorded with its route, id, developer and status")
+    void requestRecorded() throws ServletException, IOException {
+        MockHttpServletRequest request = createRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+
+        accessLogFilter.doFilter(request, response, new MockFilterChain());
+
+        verify(accessLog).record(eq("GET"), eq("/games/{gameId}"), eq(ID), eq(DEVELOPER), eq(404), anyLong());
+    }
+
+    @Test
+    @DisplayName("Test an async request is recorded on its final dispatch")
+    void asyncRequestNotRecordedUntilComplete() throws ServletException, IOException {
+        MockHttpServletRequest request = createRequest();
+        request.setAsyncStarted(true);
+
+        accessLogFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyZeroInteractions(accessLog);
+    }
+
+    @Test
+    @DisplayName("Test a request failing with an exception is recorded as a server error")
+    void failedRequestRecorded() {
+        MockHttpServletRequest request = createRequest();
+
+        assertThrows(ServletException.class, () -> accessLogFilter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> { throw new ServletException("failed"); }));
+
+        verify(accessLog).record(eq("GET"), eq("/games/{gameId}"), eq(ID), eq(DEVELOPER), eq(500), anyLong());
+    }
+
+    private MockHttpServletRequest createRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/games/" + ID);
+        request.addHeader("developer", DEVELOPER);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/games/{gameId}");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("gameId", ID));
+        return request;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rsachdev.Games.API.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessLogTest {
+    private AccessLog accessLog = new AccessLog();
+
+    @Test
+    @DisplayName("Test every request is recorded by default")
+    void everyRequestSampled() {
+        ReflectionTestUtils.setField(accessLog, "readSampleRate", 1.0);
+
+        assertTrue(accessLog.sampled("GET"));
+        assertTrue(accessLog.sampled("PUT"));
+    }
+
+    @Test
+    @DisplayName("Test reads are dropped while writes are kept when sampling is off")
+    void writesAlwaysSampled() {
+        ReflectionTestUtils.setField(accessLog, "readSampleRate", 0.0);
+
+        assertFalse(accessLog.sampled("GET"));
+        assertFalse(accessLog.sampled("HEAD"));
+        assertTrue(accessLog.sampled("POST"));
+        assertTrue(accessLog.sampled("DELETE"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.rsachdev.Games.API.controller;
+
+import com.rsachdev.Games.API.exception.CircuitOpenException;
+import com.rsachdev.Games.API.service.Bulkhead;
+import com.rsachdev.Games.API.service.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncResponsesTest {
+    @Mock
+    private ErrorMetrics errorMetrics;
+
+    @InjectMocks
+    private AsyncResponses asyncResponses;
+
+    private Bulkhead mongoReads = new Bulkhead("mongo-reads", 1, 1, 1000);
+    private Bulkhead mongoWrites = new Bulkhead("mongo-writes", 1, 1, 1000);
+    private CircuitBreaker mongoReadsCircuit = new CircuitBreaker("mongo-reads", 50, 4, 2, 60000, 1);
+    private CircuitBreaker mongoWritesCircuit = new CircuitBreaker("mongo-writes", 50, 4, 2, 60000, 1);
+    private CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(asyncResponses, "mongoReads", mongoReads);
+        ReflectionTestUtils.setField(asyncResponses, "mongoWrites", mongoWrites);
+        ReflectionTestUtils.setField(asyncResponses, "mongoReadsCircuit", mongoReadsCircuit);
+        ReflectionTestUtils.setField(asyncResponses, "mongoWritesCircuit", mongoWritesCircuit);
+        ReflectionTestUtils.setField(asyncResponses, "batchTimeoutMs", 60000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        mongoReads.shutdown();
+        mongoWrites.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test handler result is set once it completes")
+    void handlerResultSet() throws InterruptedException {
+        DeferredResult<ResponseEntity> result = asyncResponses.read(() -> ResponseEntity.ok("game"));
+
+        assertEquals(HttpStatus.OK, await(result).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test reads are still answered while the write bulkhead is full")
+    void readsUnaffectedByWriteBacklog() throws InterruptedException {
+        asyncResponses.write(this::blockUntilReleased);
+        asyncResponses.write(this::blockUntilReleased);
+
+        DeferredResult<ResponseEntity> write = asyncResponses.write(() -> ResponseEntity.noContent().build());
+        DeferredResult<ResponseEntity> read = asyncResponses.read(() -> ResponseEntity.ok("game"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity) write.getResult()).getStatusCode());
+        assertEquals(HttpStatus.OK, await(read).getStatusCode());
+        verify(errorMetrics).count(any(RejectedExecutionException.class));
+    }
+
+    @Test
+    @DisplayName("Test requests are refused without running once server errors open the circuit")
+    void openCircuitAnsweredAtOnce() throws InterruptedException {
+        await(asyncResponses.read(() -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+        await(asyncResponses.read(() -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+
+        AtomicBoolean ran = new AtomicBoolean();
+        DeferredResult<ResponseEntity> read = asyncResponses.read(() -> {
+            ran.set(true);
+            return ResponseEntity.ok("game");
+        });
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity) read.getResult()).getStatusCode());
+        assertFalse(ran.get());
+        assertEquals(CircuitBreaker.State.CLOSED, mongoWritesCircuit.getState());
+        verify(errorMetrics).count(CircuitOpenException.class);
+    }
+
+    @Test
+    @DisplayName("Test batch writes are given the batch timeout rather than the write bulkhead's")
+    void batchWritesGivenBatchTimeout() {
+        DeferredResult<ResponseEntity> batch = asyncResponses.writeBatch(() -> ResponseEntity.ok("batch"));
+        DeferredResult<ResponseEntity> write = asyncResponses.write(() -> ResponseEntity.noContent().build());
+
+        assertEquals(Long.valueOf(60000), ReflectionTestUtils.<Long>invokeMethod(batch, "getTimeoutValue"));
+        assertEquals(Long.valueOf(1000), ReflectionTestUtils.<Long>invokeMethod(write, "getTimeoutValue"));
+    }
+
+    @Test
+    @DisplayName("Test a write timing out while running is counted by how it ends, not as a failure")
+    void writeTimedOutWhileRunningJudgedByOutcome() throws Exception {
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, timeOutWhileRunning(HttpStatus.NO_CONTENT).getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, timeOutWhileRunning(HttpStatus.NO_CONTENT).getStatusCode());
+        await(asyncResponses.write(() -> ResponseEntity.noContent().build()));
+        assertEquals(CircuitBreaker.State.CLOSED, mongoWritesCircuit.getState());
+
+        timeOutWhileRunning(HttpStatus.INTERNAL_SERVER_ERROR);
+        timeOutWhileRunning(HttpStatus.INTERNAL_SERVER_ERROR);
+        for (int i = 0; i < 100 && mongoWritesCircuit.getState() != CircuitBreaker.State.OPEN; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, mongoWritesCircuit.getState());
+    }
+
+    @Test
+    @DisplayName("Test a write timing out in the queue is skipped and not counted as a failure")
+    void writeTimedOutInQueueSkipped() throws Exception {
+        asyncResponses.write(this::blockUntilReleased);
+
+        AtomicBoolean ran = new AtomicBoolean();
+        for (int i = 0; i < 2; i++) {
+            DeferredResult<ResponseEntity> write = asyncResponses.write(() -> {
+                ran.set(true);
+                return ResponseEntity.noContent().build();
+            });
+            expire(write);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity) write.getResult()).getStatusCode());
+        }
+        release.countDown();
+
+        assertEquals(HttpStatus.NO_CONTENT, await(asyncResponses.write(() -> ResponseEntity.noContent().build())).getStatusCode());
+        assertFalse(ran.get());
+        assertEquals(CircuitBreaker.State.CLOSED, mongoWritesCircuit.getState());
+    }
+
+    @Test
+    @DisplayName("Test reads that time out are counted as failures")
+    void readTimedOutIsFailure() throws Exception {
+        expire(asyncResponses.read(this::blockUntilReleased));
+        expire(asyncResponses.read(this::blockUntilReleased));
+
+        assertEquals(CircuitBreaker.State.OPEN, mongoReadsCircuit.getState());
+        verify(errorMetrics, times(2)).count(TimeoutException.class);
+    }
+
+    /**
+     * Starts a write, times its request out while it is running and then lets it answer with the
+     * given status.
+     */
+    private ResponseEntity timeOutWhileRunning(HttpStatus status) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        DeferredResult<ResponseEntity> write = asyncResponses.write(() -> {
+            started.countDown();
+            finish.await();
+            return ResponseEntity.status(status).build();
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        expire(write);
+        finish.countDown();
+        return (ResponseEntity) write.getResult();
+    }
+
+    /**
+     * Does what the container does when a request's async timeout passes.
+     */
+    private static void expire(DeferredResult<ResponseEntity> result) throws Exception {
+        DeferredResultProcessingInterceptor interceptor = ReflectionTestUtils.invokeMethod(result, "getInterceptor");
+        interceptor.handleTimeout(null, result);
+        interceptor.afterCompletion(null, result);
+    }
+
+    private ResponseEntity blockUntilReleased() throws InterruptedException {
+        release.await();
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity await(DeferredResult<ResponseEntity> result) throws InterruptedException {
+        for (int i = 0; i < 100 && !result.hasResult(); i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(result.hasResult());
+        return (ResponseEntity) result.getResult();
+    }
+}
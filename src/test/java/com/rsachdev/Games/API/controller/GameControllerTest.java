@@ -1,13 +1,26 @@
 package com.rsachdev.Games.API.controller;
 
 import com.mongodb.DuplicateKeyException;
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
+import com.rsachdev.Games.API.exception.RateLimitExceededException;
 import com.rsachdev.Games.API.exception.ResourceNotFoundException;
 import com.rsachdev.Games.API.exception.ServiceException;
 import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
 import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.BatchItemResult;
+import com.rsachdev.Games.API.model.BatchResult;
 import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.GameTitle;
+import com.rsachdev.Games.API.model.GameTitles;
 import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.service.DeveloperRateLimiter;
+import com.rsachdev.Games.API.service.GameBatchService;
+import com.rsachdev.Games.API.service.GameExportService;
 import com.rsachdev.Games.API.service.GameService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -16,19 +29,40 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,46 +74,127 @@ public class GameControllerTest {
     private static final String REQUEST_URI = "/games";
     private static final String START_INDEX = "0";
     private static final String ITEMS_PER_PAGE = "10";
+    private static final String CURSOR = "aWQ";
+    private static final String INCLUDE_TOTAL = "true";
+    private static final String GENRE_MATCH = "any";
+    private static final GameFilter NO_FILTER = new GameFilter();
+    private static final Long VERSION = 3L;
+    private static final String IF_MATCH = "\"3\"";
     private static final URI LOCATION_HEADER = URI.create(REQUEST_URI + "/" + ID);
+    private static final String IDEMPOTENCY_KEY = "key";
+    private static final String FINGERPRINT = "fingerprint";
 
     @Mock
     private GameService gameService;
 
+    @Mock
+    private GameBatchService gameBatchService;
+
+    @Mock
+    private GameExportService gameExportService;
+
     @Mock
     private HttpServletRequest request;
 
+    @Mock
+    private ErrorMetrics errorMetrics;
+
+    @Mock
+    private AsyncResponses asyncResponses;
+
+    @Mock
+    private DeveloperRateLimiter developerRateLimiter;
+
+    @Mock
+    private IdempotentWrites idempotentWrites;
+
     @InjectMocks
     private GameController gameController;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameController, "batchChunkSize", 500);
+        lenient().when(asyncResponses.read(any())).thenAnswer(invocation -> respond(invocation.getArgument(0)));
+        lenient().when(asyncResponses.write(any())).thenAnswer(invocation -> respond(invocation.getArgument(0)));
+        lenient().when(asyncResponses.writeBatch(any())).thenAnswer(invocation -> respond(invocation.getArgument(0)));
+    }
+
     @Test
     @DisplayName("Test successful retrieval of game by id")
-    void getGameByIdSuccessful() throws ServiceException, ResourceNotFoundException {
+    void getGameByIdSuccessful() throws ServiceException {
         Game game = createGame();
-        when(gameService.getById(ID)).thenReturn(game);
+        game.setVersion(VERSION);
+        when(gameService.findById(ID, GameFields.ALL)).thenReturn(Optional.of(game));
 
-        ResponseEntity response = gameController.fetch(ID);
+        ResponseEntity response = result(gameController.fetch(ID, null, null));
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(game, response.getBody());
+        assertEquals(IF_MATCH, response.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Test fetch of an unchanged game is answered from its version")
+    void getGameByIdNotModified() throws ServiceException {
+        when(gameService.findVersion(ID)).thenReturn(Optional.of(VERSION));
+
+        ResponseEntity response = result(gameController.fetch(ID, null, "W/" + IF_MATCH));
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(IF_MATCH, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(gameService, never()).findById(ID, GameFields.ALL);
+    }
+
+    @Test
+    @DisplayName("Test fetch of a changed game returns it")
+    void getGameByIdModified() throws ServiceException {
+        Game game = createGame();
+        game.setVersion(VERSION);
+        when(gameService.findVersion(ID)).thenReturn(Optional.of(VERSION));
+        when(gameService.findById(ID, GameFields.ALL)).thenReturn(Optional.of(game));
+
+        ResponseEntity response = result(gameController.fetch(ID, null, "\"2\""));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(game, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test conditional fetch of a missing game is not found")
+    void getGameByIdNotModifiedNotFound() throws ServiceException {
+        when(gameService.findVersion(ID)).thenReturn(Optional.empty());
+        when(gameService.findById(ID, GameFields.ALL)).thenReturn(Optional.empty());
+
+        ResponseEntity response = result(gameController.fetch(ID, null, IF_MATCH));
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful fetch of game - unknown field")
+    void fetchGameUnsuccessfulUnknownField() {
+        ResponseEntity response = result(gameController.fetch(ID, "title,publisher", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyZeroInteractions(gameService);
     }
 
     @Test
     @DisplayName("Test unsuccessful retrieval of game by id - not found")
-    void getGameByIdUnsuccessfulNotFound() throws ServiceException, ResourceNotFoundException {
-        when(gameService.getById(ID)).thenThrow(ResourceNotFoundException.class);
+    void getGameByIdUnsuccessfulNotFound() throws ServiceException {
+        when(gameService.findById(ID, GameFields.ALL)).thenReturn(Optional.empty());
 
-        ResponseEntity response = gameController.fetch(ID);
+        ResponseEntity response = result(gameController.fetch(ID, null, null));
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
+        verify(errorMetrics).count(ResourceNotFoundException.class);
     }
 
     @Test
     @DisplayName("Test unsuccessful retrieval of game by id - ServiceException")
-    void getGameByIdUnsuccessfulDataException() throws ServiceException, ResourceNotFoundException {
-        when(gameService.getById(ID)).thenThrow(ServiceException.class);
+    void getGameByIdUnsuccessfulDataException() throws ServiceException {
+        when(gameService.findById(ID, GameFields.ALL)).thenThrow(ServiceException.class);
 
-        ResponseEntity response = gameController.fetch(ID);
+        ResponseEntity response = result(gameController.fetch(ID, null, null));
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertNull(response.getBody());
@@ -87,11 +202,11 @@ public class GameControllerTest {
 
     @Test
     @DisplayName("Tests successful retrieval of all games")
-    void listAllGamesSuccessful() throws ServiceException {
+    void listAllGamesSuccessful() throws ServiceException, ValidationException {
         Games games = createGames();
-        when(gameService.listAllGames(START_INDEX, ITEMS_PER_PAGE)).thenReturn(games);
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenReturn(games);
 
-        ResponseEntity response = gameController.listAll(START_INDEX, ITEMS_PER_PAGE);
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, null));
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(games, response.getBody());
@@ -99,24 +214,38 @@ public class GameControllerTest {
 
     @Test
     @DisplayName("Tests unsuccessful retrieval of all games - not found")
-    void listAllGamesUnsuccessfulNotFound() throws ServiceException {
+    void listAllGamesUnsuccessfulNotFound() throws ServiceException, ValidationException {
         Games games = createGames();
-        games.setTotalResults(0);
-        when(gameService.listAllGames(START_INDEX, ITEMS_PER_PAGE)).thenReturn(games);
+        games.setTotalResults(0L);
+        games.setTotalResultsExact(true);
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenReturn(games);
 
-        ResponseEntity response = gameController.listAll(START_INDEX, ITEMS_PER_PAGE);
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, null));
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Tests retrieval of all games - a page is returned while its estimated total is still zero")
+    void listAllGamesEstimatedTotalBehind() throws ServiceException, ValidationException {
+        Games games = createGames();
+        games.setTotalResults(0L);
+        games.setTotalResultsExact(false);
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "estimated")).thenReturn(games);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, "estimated", null, null, GENRE_MATCH, null, null, null, null));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(games, response.getBody());
+    }
+
     @Test
     @DisplayName("Tests unsuccessful retrieval of all games - not found - empty list")
-    void listAllGamesUnsuccessfulNotFoundEmptyList() throws ServiceException {
+    void listAllGamesUnsuccessfulNotFoundEmptyList() throws ServiceException, ValidationException {
         Games games = createGames();
         games.setItems(Collections.emptyList());
-        when(gameService.listAllGames(START_INDEX, ITEMS_PER_PAGE)).thenReturn(games);
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenReturn(games);
 
-        ResponseEntity response = gameController.listAll(START_INDEX, ITEMS_PER_PAGE);
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, null));
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -124,14 +253,139 @@ public class GameControllerTest {
 
     @Test
     @DisplayName("Test unsuccessful retrieval of all games - ServiceException")
-    void listAllGamesUnsuccessfulDataException() throws ServiceException {
-        when(gameService.listAllGames(START_INDEX, ITEMS_PER_PAGE)).thenThrow(ServiceException.class);
+    void listAllGamesUnsuccessfulDataException() throws ServiceException, ValidationException {
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenThrow(ServiceException.class);
 
-        ResponseEntity response = gameController.listAll(START_INDEX, ITEMS_PER_PAGE);
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, null));
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Tests retrieval of an unchanged page is answered without a body")
+    void listAllGamesNotModified() throws ServiceException, ValidationException {
+        Games games = createGames();
+        String tag = VersionTags.format(games);
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenReturn(games);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, tag));
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(tag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Tests retrieval of a changed page returns it with a new tag")
+    void listAllGamesModified() throws ServiceException, ValidationException {
+        Games games = createGames();
+        String staleTag = VersionTags.format(games);
+        Games changed = createGames();
+        changed.setTotalResults(4L);
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenReturn(changed);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, staleTag));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(changed, response.getBody());
+        assertEquals(VersionTags.format(changed), response.getHeaders().getETag());
+        verify(gameService, times(1)).listAllGames(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Tests successful retrieval of all games without a total")
+    void listAllGamesWithoutTotalSuccessful() throws ServiceException, ValidationException {
+        Games games = createGames();
+        games.setTotalResults(null);
+        when(gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "false")).thenReturn(games);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, "false", null, null, GENRE_MATCH, null, null, null, null));
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(games, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Tests successful retrieval of games filtered by developer, genre and release date")
+    void listAllGamesFilteredSuccessful() throws ServiceException, ValidationException {
+        Games games = createGames();
+        LocalDate after = LocalDate.of(2010, 1, 1);
+        LocalDate before = LocalDate.of(2020, 1, 1);
+        List<String> genres = Collections.singletonList("rpg");
+        GameFilter filter = GameFilter.of(DEVELOPER, genres, "all", after, before);
+        when(gameService.listAllGames(filter, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenReturn(games);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, DEVELOPER, genres, "all", after, before, null, null));
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(games, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Tests successful retrieval of all games with only the requested fields")
+    void listAllGamesProjectedSuccessful() throws ServiceException, ValidationException {
+        Games games = createGames();
+        when(gameService.listAllGames(NO_FILTER, GameFields.of("id,title"), START_INDEX, ITEMS_PER_PAGE, INCLUDE_TOTAL)).thenReturn(games);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, " id, Title ", null));
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(games, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful retrieval of all games - invalid genre-match")
+    void listAllGamesUnsuccessfulInvalidGenreMatch() {
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, null, INCLUDE_TOTAL, null, null, "some", null, null, null, null));
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyZeroInteractions(gameService);
+    }
+
+    @Test
+    @DisplayName("Tests successful retrieval of games after cursor")
+    void listGamesAfterCursorSuccessful() throws ServiceException, ValidationException {
+        Games games = createGames();
+        games.setTotalResults(null);
+        games.setStartIndex(null);
+        when(gameService.listGamesAfter(NO_FILTER, GameFields.ALL, CURSOR, ITEMS_PER_PAGE)).thenReturn(games);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, CURSOR, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, null));
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(games, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful retrieval of games after cursor - ValidationException")
+    void listGamesAfterCursorUnsuccessfulValidationException() throws ServiceException, ValidationException {
+        when(gameService.listGamesAfter(NO_FILTER, GameFields.ALL, CURSOR, ITEMS_PER_PAGE)).thenThrow(ValidationException.class);
+
+        ResponseEntity response = result(gameController.listAll(START_INDEX, ITEMS_PER_PAGE, CURSOR, INCLUDE_TOTAL, null, null, GENRE_MATCH, null, null, null, null));
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test successful title search")
+    void searchSuccessful() throws ServiceException, ValidationException {
+        GameTitles titles = new GameTitles(Collections.singletonList(new GameTitle(ID, TITLE)));
+        when(gameService.searchTitles("tit", "10")).thenReturn(titles);
+
+        ResponseEntity response = result(gameController.search("tit", "10"));
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(titles, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful title search - index not loaded")
+    void searchUnsuccessfulNotLoaded() throws ServiceException, ValidationException {
+        when(gameService.searchTitles("tit", "10")).thenThrow(ServiceException.class);
+
+        ResponseEntity response = result(gameController.search("tit", "10"));
+        assertNotNull(response);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
     @Test
     @DisplayName("Test successful create of game")
     void createGameSuccessful() throws UnauthorisedDeveloperException, ServiceException, ValidationException {
@@ -140,12 +394,27 @@ public class GameControllerTest {
         when(request.getRequestURI()).thenReturn(REQUEST_URI);
         when(gameService.createGame(game, DEVELOPER)).thenReturn(game);
 
-        ResponseEntity response = gameController.create(game, request);
+        ResponseEntity response = result(gameController.create(game, request));
         assertNotNull(response);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(LOCATION_HEADER, response.getHeaders().getLocation());
     }
 
+    @Test
+    @DisplayName("Test unsuccessful create of game - rate limit exceeded")
+    void createGameUnsuccessfulRateLimited() throws Exception {
+        Game game = createGame();
+        RateLimitExceededException rle = new RateLimitExceededException("limited", 2);
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        doThrow(rle).when(developerRateLimiter).acquire(DEVELOPER, 1);
+
+        ResponseEntity response = result(gameController.create(game, request));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(errorMetrics).count(rle);
+        verifyZeroInteractions(gameService, asyncResponses);
+    }
+
     @Test
     @DisplayName("Test unsuccessful create of game - ValidationException")
     void createGameUnsuccessfulValidationException() throws
@@ -157,7 +426,7 @@ public class GameControllerTest {
 
         when(gameService.createGame(game, DEVELOPER)).thenThrow(ValidationException.class);
 
-        ResponseEntity response = gameController.create(game, request);
+        ResponseEntity response = result(gameController.create(game, request));
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
@@ -170,7 +439,7 @@ public class GameControllerTest {
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
         when(gameService.createGame(game, DEVELOPER)).thenThrow(UnauthorisedDeveloperException.class);
 
-        ResponseEntity response = gameController.create(game, request);
+        ResponseEntity response = result(gameController.create(game, request));
         assertNotNull(response);
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
@@ -183,7 +452,7 @@ public class GameControllerTest {
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
         when(gameService.createGame(game, DEVELOPER)).thenThrow(ServiceException.class);
 
-        ResponseEntity response = gameController.create(game, request);
+        ResponseEntity response = result(gameController.create(game, request));
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
@@ -196,71 +465,232 @@ public class GameControllerTest {
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
         when(gameService.createGame(game, DEVELOPER)).thenThrow(DuplicateKeyException.class);
 
-        ResponseEntity response = gameController.create(game, request);
+        ResponseEntity response = result(gameController.create(game, request));
         assertNotNull(response);
         assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Test successful create of batch of games")
+    void createBatchSuccessful() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = Collections.singletonList(createGame());
+        BatchResult result = new BatchResult(Collections.singletonList(new BatchItemResult(0, ID, BatchItemResult.Status.CREATED)));
+
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        when(gameBatchService.createGames(games, DEVELOPER)).thenReturn(result);
+
+        ResponseEntity response = result(gameController.createBatch(games, request));
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test batch writes, with or without an idempotency key, are given the batch timeout")
+    void batchWritesUseBatchTimeout() throws Exception {
+        List<Game> games = Collections.singletonList(createGame());
+        List<String> gameIds = Collections.singletonList(ID);
+        BatchResult result = new BatchResult(Collections.singletonList(new BatchItemResult(0, ID, BatchItemResult.Status.CREATED)));
+
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        when(gameBatchService.createGames(games, DEVELOPER)).thenReturn(result);
+        when(gameBatchService.updateGames(games, DEVELOPER)).thenReturn(result);
+        doReturn(result).when(gameBatchService).createGames(games, DEVELOPER, gameIds);
+
+        assertEquals(HttpStatus.OK, result(gameController.createBatch(games, request)).getStatusCode());
+        assertEquals(HttpStatus.OK, result(gameController.updateBatch(games, request)).getStatusCode());
+
+        doReturn(IDEMPOTENCY_KEY).when(request).getHeader(IdempotentWrites.IDEMPOTENCY_KEY_HEADER);
+        when(idempotentWrites.fingerprint(request, games)).thenReturn(FINGERPRINT);
+        when(idempotentWrites.replay(DEVELOPER, IDEMPOTENCY_KEY, FINGERPRINT)).thenReturn(Optional.empty());
+        when(idempotentWrites.run(eq(DEVELOPER), eq(IDEMPOTENCY_KEY), eq(FINGERPRINT), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Function<List<String>, ResponseEntity>>getArgument(4).apply(gameIds));
+
+        assertEquals(HttpStatus.OK, result(gameController.createBatch(games, request)).getStatusCode());
+        verify(asyncResponses, times(3)).writeBatch(any());
+        verify(asyncResponses, never()).write(any());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful create of batch of games - unauthorised")
+    void createBatchUnsuccessfulUnauthorised() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = Collections.singletonList(createGame());
+
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        when(gameBatchService.createGames(games, DEVELOPER)).thenThrow(UnauthorisedDeveloperException.class);
+
+        ResponseEntity response = result(gameController.createBatch(games, request));
+        assertNotNull(response);
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test a batch of the largest size is admitted under the default rate limits")
+    void createBatchOfMaxSizeWithDefaultLimits() throws Exception {
+        Properties defaults = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        DeveloperRateLimiter rateLimiter = new DeveloperRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "enabled", Boolean.parseBoolean(defaults.getProperty("games.rate-limit.enabled")));
+        ReflectionTestUtils.setField(rateLimiter, "writesPerSecond", Double.parseDouble(defaults.getProperty("games.rate-limit.writes-per-second")));
+        ReflectionTestUtils.setField(rateLimiter, "burst", Integer.parseInt(defaults.getProperty("games.rate-limit.burst")));
+        ReflectionTestUtils.setField(rateLimiter, "overrides", defaults.getProperty("games.rate-limit.overrides"));
+        ReflectionTestUtils.setField(rateLimiter, "maximumDevelopers", Long.parseLong(defaults.getProperty("games.rate-limit.maximum-developers")));
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(rateLimiter, "init");
+        ReflectionTestUtils.setField(gameController, "developerRateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(gameController, "batchChunkSize", Integer.parseInt(defaults.getProperty("games.batch.chunk-size")));
+
+        try {
+            List<Game> games = new ArrayList<>();
+            for (int i = 0; i < Integer.parseInt(defaults.getProperty("games.batch.max-size")); i++) {
+                games.add(createGame());
+            }
+            BatchResult result = new BatchResult(Collections.emptyList());
+            when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+            when(gameBatchService.createGames(games, DEVELOPER)).thenReturn(result);
+            when(gameBatchService.updateGames(games, DEVELOPER)).thenReturn(result);
+
+            assertEquals(HttpStatus.OK, result(gameController.createBatch(games, request)).getStatusCode());
+            assertEquals(HttpStatus.OK, result(gameController.updateBatch(games, request)).getStatusCode());
+        } finally {
+            ReflectionTestUtils.setField(gameController, "developerRateLimiter", developerRateLimiter);
+        }
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful create of batch of games - larger than the developer's burst")
+    void createBatchUnsuccessfulOverBurst() throws Exception {
+        List<Game> games = Arrays.asList(createGame(), createGame());
+        ValidationException ve = new ValidationException("Developer " + DEVELOPER + " may make at most 0 writes in one request");
+
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        doThrow(ve).when(developerRateLimiter).acquire(DEVELOPER, 1);
+
+        ResponseEntity response = result(gameController.createBatch(games, request));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(ve.getMessage(), response.getBody());
+        verify(errorMetrics).count(ve);
+        verifyZeroInteractions(gameBatchService, asyncResponses);
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful update of batch of games - ValidationException")
+    void updateBatchUnsuccessfulValidationException() throws UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = Collections.singletonList(createGame());
+
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        when(gameBatchService.updateGames(games, DEVELOPER)).thenThrow(ValidationException.class);
+
+        ResponseEntity response = result(gameController.updateBatch(games, request));
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test successful export of games")
+    void exportGamesSuccessful() {
+        ResponseEntity response = gameController.export(DEVELOPER, null, "all", null, null, ID);
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful export of games - invalid genre-match")
+    void exportGamesUnsuccessfulInvalidGenreMatch() {
+        ResponseEntity response = gameController.export(DEVELOPER, null, "some", null, null, ID);
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     @DisplayName("Test successful update of game")
-    void updateGameSuccessful() {
+    void updateGameSuccessful() throws ServiceException, ResourceNotFoundException, UnauthorisedDeveloperException, ValidationException, PreconditionFailedException {
         Game game = createGame();
+        Game updatedGame = createGame();
+        updatedGame.setVersion(VERSION + 1);
 
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        when(gameService.updateGame(game, ID, DEVELOPER, VERSION)).thenReturn(updatedGame);
 
-        ResponseEntity response = gameController.update(game, ID, request);
+        ResponseEntity response = result(gameController.update(game, ID, IF_MATCH, request));
         assertNotNull(response);
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("\"" + (VERSION + 1) + "\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful update of game - version has changed")
+    void updateGameUnsuccessfulPreconditionFailed() throws ResourceNotFoundException, UnauthorisedDeveloperException, ServiceException, ValidationException, PreconditionFailedException {
+        Game game = createGame();
+
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        doThrow(PreconditionFailedException.class).when(gameService).updateGame(game, ID, DEVELOPER, VERSION);
+
+        ResponseEntity response = result(gameController.update(game, ID, IF_MATCH, request));
+        assertNotNull(response);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful update of game - malformed If-Match")
+    void updateGameUnsuccessfulMalformedIfMatch() {
+        Game game = createGame();
+
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+
+        ResponseEntity response = result(gameController.update(game, ID, "\"abc\"", request));
+        assertNotNull(response);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Test unsuccessful update of game - unauthorised developer")
-    void updateGameUnsuccessfulUnauthorised() throws ResourceNotFoundException, UnauthorisedDeveloperException, ServiceException, ValidationException {
+    void updateGameUnsuccessfulUnauthorised() throws ResourceNotFoundException, UnauthorisedDeveloperException, ServiceException, ValidationException, PreconditionFailedException {
         Game game = createGame();
 
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
-        doThrow(UnauthorisedDeveloperException.class).when(gameService).updateGame(game, ID, DEVELOPER);
+        doThrow(UnauthorisedDeveloperException.class).when(gameService).updateGame(game, ID, DEVELOPER, null);
 
-        ResponseEntity response = gameController.update(game, ID, request);
+        ResponseEntity response = result(gameController.update(game, ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Test unsuccessful update of game - ServiceException")
-    void updateGameUnsuccessfulServiceException() throws ResourceNotFoundException, UnauthorisedDeveloperException, ServiceException, ValidationException {
+    void updateGameUnsuccessfulServiceException() throws ResourceNotFoundException, UnauthorisedDeveloperException, ServiceException, ValidationException, PreconditionFailedException {
         Game game = createGame();
 
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
-        doThrow(ServiceException.class).when(gameService).updateGame(game, ID, DEVELOPER);
+        doThrow(ServiceException.class).when(gameService).updateGame(game, ID, DEVELOPER, null);
 
-        ResponseEntity response = gameController.update(game, ID, request);
+        ResponseEntity response = result(gameController.update(game, ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Test unsuccessful update of game - ResourceNotFoundException")
-    void updateGameUnsuccessfulResourceNotFound() throws ResourceNotFoundException, UnauthorisedDeveloperException, ServiceException, ValidationException {
+    void updateGameUnsuccessfulResourceNotFound() throws ResourceNotFoundException, UnauthorisedDeveloperException, ServiceException, ValidationException, PreconditionFailedException {
         Game game = createGame();
 
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
-        doThrow(ResourceNotFoundException.class).when(gameService).updateGame(game, ID, DEVELOPER);
+        doThrow(ResourceNotFoundException.class).when(gameService).updateGame(game, ID, DEVELOPER, null);
 
-        ResponseEntity response = gameController.update(game, ID, request);
+        ResponseEntity response = result(gameController.update(game, ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Test unsuccessful update of game - ValidationException")
-    void updateGameUnsuccessfulValidationException() throws ServiceException, ResourceNotFoundException, UnauthorisedDeveloperException, ValidationException {
+    void updateGameUnsuccessfulValidationException() throws ServiceException, ResourceNotFoundException, UnauthorisedDeveloperException, ValidationException, PreconditionFailedException {
         Game game = createGame();
 
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
-        doThrow(ValidationException.class).when(gameService).updateGame(game, ID, DEVELOPER);
+        doThrow(ValidationException.class).when(gameService).updateGame(game, ID, DEVELOPER, null);
 
-        ResponseEntity response = gameController.update(game, ID, request);
+        ResponseEntity response = result(gameController.update(game, ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
@@ -272,44 +702,107 @@ public class GameControllerTest {
 
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
 
-        ResponseEntity response = gameController.delete(ID, request);
+        ResponseEntity response = result(gameController.delete(ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Test unsuccessful delete of game - version has changed")
+    void deleteGameUnsuccessfulPreconditionFailed() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException, PreconditionFailedException {
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        doThrow(PreconditionFailedException.class).when(gameService).deleteGame(ID, DEVELOPER, VERSION);
+
+        ResponseEntity response = result(gameController.delete(ID, IF_MATCH, request));
+        assertNotNull(response);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+
     @Test
     @DisplayName("Test unsuccessful delete of game - ResourceNotFoundException")
-    void deleteGameUnsuccessfulResourceNotFound() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException {
+    void deleteGameUnsuccessfulResourceNotFound() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException, PreconditionFailedException {
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
-        doThrow(ResourceNotFoundException.class).when(gameService).deleteGame(ID, DEVELOPER);
+        doThrow(ResourceNotFoundException.class).when(gameService).deleteGame(ID, DEVELOPER, null);
 
-        ResponseEntity response = gameController.delete(ID, request);
+        ResponseEntity response = result(gameController.delete(ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
     @DisplayName("Test unsuccessful delete of game - ServiceException")
-    void deleteGameUnsuccessfulServiceException() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException {
+    void deleteGameUnsuccessfulServiceException() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException, PreconditionFailedException {
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
-        doThrow(ServiceException.class).when(gameService).deleteGame(ID, DEVELOPER);
+        doThrow(ServiceException.class).when(gameService).deleteGame(ID, DEVELOPER, null);
 
-        ResponseEntity response = gameController.delete(ID, request);
+        ResponseEntity response = result(gameController.delete(ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Test create with an Idempotency-Key runs once through the idempotent writes under its reserved id")
+    void createGameIdempotent() throws UnauthorisedDeveloperException, ServiceException, ValidationException {
+        Game game = createGame();
+        idempotentCreate(game);
+        when(gameService.createGame(game, DEVELOPER, ID)).thenReturn(game);
+
+        ResponseEntity response = result(gameController.create(game, request));
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(LOCATION_HEADER, response.getHeaders().getLocation());
+        verify(gameService).createGame(game, DEVELOPER, ID);
+    }
+
+    @Test
+    @DisplayName("Test a create whose reserved id is taken by an earlier attempt is answered as created")
+    void createGameIdempotentAlreadyCreated() throws UnauthorisedDeveloperException, ServiceException, ValidationException {
+        Game game = createGame();
+        idempotentCreate(game);
+        when(gameService.createGame(game, DEVELOPER, ID)).thenThrow(new org.springframework.dao.DuplicateKeyException("duplicate"));
+
+        ResponseEntity response = result(gameController.create(game, request));
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(LOCATION_HEADER, response.getHeaders().getLocation());
+        verifyZeroInteractions(errorMetrics);
+    }
+
+    @Test
+    @DisplayName("Test a retried create is replayed without being rate limited or run")
+    void createGameReplayed() throws RateLimitExceededException, ValidationException {
+        Game game = createGame();
+        ResponseEntity replayed = ResponseEntity.created(LOCATION_HEADER).build();
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        doReturn(IDEMPOTENCY_KEY).when(request).getHeader(IdempotentWrites.IDEMPOTENCY_KEY_HEADER);
+        when(idempotentWrites.fingerprint(request, game)).thenReturn(FINGERPRINT);
+        when(idempotentWrites.replay(DEVELOPER, IDEMPOTENCY_KEY, FINGERPRINT)).thenReturn(Optional.of(replayed));
+
+        assertSame(replayed, result(gameController.create(game, request)));
+        verify(developerRateLimiter, never()).acquire(any(), anyInt());
+        verify(asyncResponses, never()).write(any());
+        verifyZeroInteractions(gameService);
+    }
+
     @Test
     @DisplayName("Test unsuccessful delete of game - Unauthorised")
-    void deleteGameUnsuccessfulUnauthorised() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException {
+    void deleteGameUnsuccessfulUnauthorised() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException, PreconditionFailedException {
         when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
-        doThrow(UnauthorisedDeveloperException.class).when(gameService).deleteGame(ID, DEVELOPER);
+        doThrow(UnauthorisedDeveloperException.class).when(gameService).deleteGame(ID, DEVELOPER, null);
 
-        ResponseEntity response = gameController.delete(ID, request);
+        ResponseEntity response = result(gameController.delete(ID, null, request));
         assertNotNull(response);
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
 
+    private DeferredResult<ResponseEntity> respond(Callable<ResponseEntity> handler) throws Exception {
+        DeferredResult<ResponseEntity> result = new DeferredResult<>();
+        result.setResult(handler.call());
+        return result;
+    }
+
+    private ResponseEntity result(DeferredResult<ResponseEntity> result) {
+        return (ResponseEntity) result.getResult();
+    }
+
     private Game createGame() {
         Game game = new Game();
         game.setDeveloper(DEVELOPER);
@@ -318,6 +811,17 @@ public class GameControllerTest {
         return game;
     }
 
+    private void idempotentCreate(Game game) {
+        when(request.getHeader(DEVELOPER)).thenReturn(DEVELOPER);
+        doReturn(IDEMPOTENCY_KEY).when(request).getHeader(IdempotentWrites.IDEMPOTENCY_KEY_HEADER);
+        when(request.getRequestURI()).thenReturn(REQUEST_URI);
+        when(idempotentWrites.fingerprint(request, game)).thenReturn(FINGERPRINT);
+        when(idempotentWrites.replay(DEVELOPER, IDEMPOTENCY_KEY, FINGERPRINT)).thenReturn(Optional.empty());
+        when(idempotentWrites.run(eq(DEVELOPER), eq(IDEMPOTENCY_KEY), eq(FINGERPRINT), eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Function<List<String>, ResponseEntity>>getArgument(4)
+                        .apply(Collections.singletonList(ID)));
+    }
+
     private Games createGames() {
         Games games = new Games();
         List<Game> gamesList = new ArrayList<>();
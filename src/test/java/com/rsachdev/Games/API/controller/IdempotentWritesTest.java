@@ -0,0 +1,248 @@
+package com.rsachdev.Games.API.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.BatchItemResult;
+import com.rsachdev.Games.API.model.BatchResult;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.IdempotencyRecord;
+import com.rsachdev.Games.API.service.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotentWritesTest {
+    private static final String DEVELOPER = "Developer";
+    private static final String KEY = "key";
+    private static final String ID = "developer:key";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String LOCATION = "/games/id";
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ErrorMetrics errorMetrics;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private IdempotentWrites idempotentWrites;
+
+    @Test
+    @DisplayName("Test requests with different bodies have different fingerprints")
+    void fingerprintsBody() {
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/games");
+        Game game = new Game();
+        game.setTitle("title");
+        Game other = new Game();
+        other.setTitle("other");
+
+        assertEquals(idempotentWrites.fingerprint(request, game), idempotentWrites.fingerprint(request, game));
+        assertNotEquals(idempotentWrites.fingerprint(request, game), idempotentWrites.fingerprint(request, other));
+    }
+
+    @Test
+    @DisplayName("Test the first request with a key runs with the reserved game ids and its response is stored")
+    void firstRequestStored() throws ServiceException {
+        when(idempotencyStore.claim(eq(ID), eq(FINGERPRINT), anyList()))
+                .thenAnswer(invocation -> IdempotencyStore.Claim.owned(
+                        new IdempotencyRecord(ID, FINGERPRINT, invocation.getArgument(2), new Date())));
+        ResponseEntity created = ResponseEntity.created(URI.create(LOCATION)).build();
+        List<List<String>> written = new ArrayList<>();
+
+        assertSame(created, idempotentWrites.run(DEVELOPER, KEY, FINGERPRINT, 2, gameIds -> {
+            written.add(gameIds);
+            return created;
+        }));
+        assertEquals(2, written.get(0).size());
+        assertNotEquals(written.get(0).get(0), written.get(0).get(1));
+        verify(idempotencyStore).complete(ID, FINGERPRINT, 201, LOCATION, null);
+        verify(idempotencyStore, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Test a retry of an abandoned write runs with the game ids it first reserved")
+    void reclaimedRequestReusesGameIds() throws ServiceException {
+        List<String> reserved = Collections.singletonList("reserved");
+        when(idempotencyStore.claim(eq(ID), eq(FINGERPRINT), anyList()))
+                .thenReturn(IdempotencyStore.Claim.owned(new IdempotencyRecord(ID, FINGERPRINT, reserved, new Date())));
+        List<List<String>> written = new ArrayList<>();
+
+        idempotentWrites.run(DEVELOPER, KEY, FINGERPRINT, 1, gameIds -> {
+            written.add(gameIds);
+            return ResponseEntity.created(URI.create(LOCATION)).build();
+        });
+
+        assertEquals(Collections.singletonList(reserved), written);
+    }
+
+    @Test
+    @DisplayName("Test a key whose write is refused as a client error is released")
+    void refusedRequestReleased() throws ServiceException {
+        when(idempotencyStore.claim(eq(ID), eq(FINGERPRINT), anyList())).thenReturn(owned());
+
+        ResponseEntity response = idempotentWrites.run(DEVELOPER, KEY, FINGERPRINT, 1,
+                gameIds -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(idempotencyStore).release(ID);
+        verify(idempotencyStore, never()).abandon(any());
+        verify(idempotencyStore, never()).complete(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test a key whose write fails on the server is abandoned rather than released")
+    void failedRequestAbandoned() throws ServiceException {
+        when(idempotencyStore.claim(eq(ID), eq(FINGERPRINT), anyList())).thenReturn(owned());
+
+        ResponseEntity response = idempotentWrites.run(DEVELOPER, KEY, FINGERPRINT, 1,
+                gameIds -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(idempotencyStore).abandon(ID);
+        verify(idempotencyStore, never()).release(any());
+        verify(idempotencyStore, never()).complete(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test a key whose write throws is abandoned rather than released")
+    void thrownRequestAbandoned() throws ServiceException {
+        when(idempotencyStore.claim(eq(ID), eq(FINGERPRINT), anyList())).thenReturn(owned());
+
+        assertThrows(IllegalStateException.class, () -> idempotentWrites.run(DEVELOPER, KEY, FINGERPRINT, 1, gameIds -> {
+            throw new IllegalStateException("failed");
+        }));
+        verify(idempotencyStore).abandon(ID);
+        verify(idempotencyStore, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Test a completed batch is replayed with its result without running again")
+    void completedReplayed() throws ServiceException {
+        BatchResult batchResult = new BatchResult(Collections.singletonList(new BatchItemResult()));
+        IdempotencyRecord record = completed(200, null, batchResult);
+        when(idempotencyStore.claim(eq(ID), eq(FINGERPRINT), anyList())).thenReturn(IdempotencyStore.Claim.held(record));
+
+        ResponseEntity response = idempotentWrites.run(DEVELOPER, KEY, FINGERPRINT, 1, gameIds -> {
+            throw new AssertionError("write should not run");
+        });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(batchResult, response.getBody());
+        assertEquals("true", response.getHeaders().getFirst(IdempotentWrites.REPLAYED_HEADER));
+        assertEquals(1, meterRegistry.get("games.idempotency.replayed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test a create this instance has completed is replayed from memory")
+    void replayedFromMemory() {
+        when(idempotencyStore.getCompleted(ID)).thenReturn(Optional.of(completed(201, LOCATION, null)));
+
+        ResponseEntity response = idempotentWrites.replay(DEVELOPER, KEY, FINGERPRINT).get();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(URI.create(LOCATION), response.getHeaders().getLocation());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test a key reused for a different request is rejected")
+    void differentRequestRejected() {
+        when(idempotencyStore.getCompleted(ID)).thenReturn(Optional.of(completed(201, LOCATION, null)));
+
+        ResponseEntity response = idempotentWrites.replay(DEVELOPER, KEY, "other").get();
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test a request made while the first with its key is running is refused")
+    void inProgressRefused() throws ServiceException {
+        when(idempotencyStore.claim(eq(ID), eq(FINGERPRINT), anyList()))
+                .thenReturn(IdempotencyStore.Claim.held(new IdempotencyRecord(ID, FINGERPRINT, new Date())));
+
+        ResponseEntity response = idempotentWrites.run(DEVELOPER, KEY, FINGERPRINT, 1, gameIds -> {
+            throw new AssertionError("write should not run");
+        });
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(idempotencyStore, never()).release(any());
+        verify(idempotencyStore, never()).abandon(any());
+    }
+
+    @Test
+    @DisplayName("Test an overlong key is rejected")
+    void overlongKeyRejected() {
+        char[] key = new char[256];
+        Arrays.fill(key, 'k');
+
+        Optional<ResponseEntity> response = idempotentWrites.replay(DEVELOPER, new String(key), FINGERPRINT);
+
+        assertTrue(response.isPresent());
+        assertEquals(HttpStatus.BAD_REQUEST, response.get().getStatusCode());
+        verifyZeroInteractions(idempotencyStore);
+    }
+
+    @Test
+    @DisplayName("Test a key this instance has not completed is left to the store")
+    void unknownKeyNotReplayed() {
+        when(idempotencyStore.getCompleted(ID)).thenReturn(Optional.empty());
+
+        assertFalse(idempotentWrites.replay(DEVELOPER, KEY, FINGERPRINT).isPresent());
+    }
+
+    private static IdempotencyStore.Claim owned() {
+        return IdempotencyStore.Claim.owned(new IdempotencyRecord(ID, FINGERPRINT, Collections.singletonList("game-id"), new Date()));
+    }
+
+    private static IdempotencyRecord completed(int status, String location, BatchResult batchResult) {
+        IdempotencyRecord record = new IdempotencyRecord(ID, FINGERPRINT, new Date());
+        record.setStatus(status);
+        record.setLocation(location);
+        record.setBatchResult(batchResult);
+        return record;
+    }
+}
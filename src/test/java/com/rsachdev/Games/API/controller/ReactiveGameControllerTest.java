@@ -0,0 +1,206 @@
+package com.rsachdev.Games.API.controller;
+
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.service.ReactiveGameService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(Lifecycle.PER_CLASS)
+public class ReactiveGameControllerTest {
+    private static final String ID = "id";
+    private static final String DEVELOPER = "developer";
+    private static final String TITLE = "title";
+    private static final String REQUEST_URI = "/games";
+    private static final Long VERSION = 3L;
+    private static final String IF_MATCH = "\"3\"";
+
+    @Mock
+    private ReactiveGameService reactiveGameService;
+
+    @Mock
+    private ErrorMetrics errorMetrics;
+
+    @InjectMocks
+    private ReactiveGameController reactiveGameController;
+
+    @Test
+    @DisplayName("Test successful retrieval of game by id")
+    void fetchSuccessful() {
+        Game game = createGame();
+        game.setVersion(VERSION);
+        when(reactiveGameService.getById(ID, GameFields.ALL)).thenReturn(Mono.just(game));
+
+        ResponseEntity response = reactiveGameController.fetch(ID, null, null).block();
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(game, response.getBody());
+        assertEquals(IF_MATCH, response.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Test retrieval of an unchanged game by id")
+    void fetchNotModified() {
+        Game game = createGame();
+        game.setVersion(VERSION);
+        when(reactiveGameService.getById(ID, GameFields.VERSION)).thenReturn(Mono.just(game));
+        doReturn(Mono.error(new IllegalStateException("not read"))).when(reactiveGameService).getById(ID, GameFields.ALL);
+
+        ResponseEntity response = reactiveGameController.fetch(ID, null, IF_MATCH).block();
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(IF_MATCH, response.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Test retrieval of game by id - not found")
+    void fetchNotFound() {
+        when(reactiveGameService.getById(ID, GameFields.ALL)).thenReturn(Mono.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, reactiveGameController.fetch(ID, null, null).block().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test retrieval of game by id - internal server error")
+    void fetchInternalServerError() {
+        when(reactiveGameService.getById(ID, GameFields.ALL)).thenReturn(Mono.error(new IllegalStateException("mongo down")));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, reactiveGameController.fetch(ID, null, null).block().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test successful creation of game")
+    void createSuccessful() {
+        Game game = createGame();
+        when(reactiveGameService.createGame(game, DEVELOPER)).thenReturn(Mono.just(game));
+
+        ResponseEntity response = reactiveGameController.create(game, DEVELOPER, MockServerHttpRequest.post(REQUEST_URI).build()).block();
+        assertNotNull(response);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(URI.create(REQUEST_URI + "/" + ID), response.getHeaders().getLocation());
+    }
+
+    @Test
+    @DisplayName("Test creation of game - unauthorised, duplicate and invalid")
+    void createFailures() {
+        Game game = createGame();
+        MockServerHttpRequest request = MockServerHttpRequest.post(REQUEST_URI).build();
+
+        when(reactiveGameService.createGame(game, DEVELOPER)).thenReturn(
+                Mono.error(new UnauthorisedDeveloperException("unauthorised")),
+                Mono.error(new DuplicateKeyException("duplicate")),
+                Mono.error(new ValidationException("invalid")));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, reactiveGameController.create(game, DEVELOPER, request).block().getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, reactiveGameController.create(game, DEVELOPER, request).block().getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, reactiveGameController.create(game, DEVELOPER, request).block().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test list all games - no games found")
+    void listAllNotFound() {
+        Games games = new Games();
+        games.setItems(Collections.emptyList());
+        when(reactiveGameService.listAllGames(new GameFilter(), GameFields.ALL, "0", "10", "true")).thenReturn(Mono.just(games));
+
+        assertEquals(HttpStatus.NOT_FOUND, reactiveGameController.listAll("0", "10", null, "true", null, null, "any", null, null, null, null).block().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test list all games - a page is returned while its estimated total is still zero")
+    void listAllEstimatedTotalBehind() {
+        Games games = new Games();
+        games.setItems(Collections.singletonList(createGame()));
+        games.setTotalResults(0L);
+        games.setTotalResultsExact(false);
+        when(reactiveGameService.listAllGames(new GameFilter(), GameFields.ALL, "0", "10", "estimated")).thenReturn(Mono.just(games));
+
+        assertEquals(HttpStatus.OK, reactiveGameController.listAll("0", "10", null, "estimated", null, null, "any", null, null, null, null).block().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test retrieval of an unchanged page is answered without a body")
+    void listAllNotModified() {
+        Game game = createGame();
+        game.setVersion(VERSION);
+        Games games = new Games();
+        games.setItems(Collections.singletonList(game));
+        String tag = VersionTags.format(games);
+        when(reactiveGameService.listAllGames(new GameFilter(), GameFields.ALL, "0", "10", "true")).thenReturn(Mono.just(games));
+
+        ResponseEntity response = reactiveGameController.listAll("0", "10", null, "true", null, null, "any", null, null, null, tag).block();
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(tag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test successful update of game returns the new version")
+    void updateSuccessful() {
+        Game game = createGame();
+        Game updated = createGame();
+        updated.setVersion(VERSION + 1);
+        when(reactiveGameService.updateGame(game, ID, DEVELOPER, VERSION)).thenReturn(Mono.just(updated));
+
+        ResponseEntity response = reactiveGameController.update(game, ID, IF_MATCH, DEVELOPER).block();
+        assertNotNull(response);
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Test update of game - malformed If-Match")
+    void updateMalformedIfMatch() {
+        assertEquals(HttpStatus.PRECONDITION_FAILED,
+                reactiveGameController.update(createGame(), ID, "v3", DEVELOPER).block().getStatusCode());
+        verifyZeroInteractions(reactiveGameService);
+    }
+
+    @Test
+    @DisplayName("Test delete of game - successful and stale version")
+    void deleteOutcomes() {
+        when(reactiveGameService.deleteGame(ID, DEVELOPER, VERSION)).thenReturn(
+                Mono.empty(),
+                Mono.error(new PreconditionFailedException("stale")),
+                Mono.error(new ServiceException("concurrent")));
+
+        assertEquals(HttpStatus.NO_CONTENT, reactiveGameController.delete(ID, IF_MATCH, DEVELOPER).block().getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, reactiveGameController.delete(ID, IF_MATCH, DEVELOPER).block().getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, reactiveGameController.delete(ID, IF_MATCH, DEVELOPER).block().getStatusCode());
+    }
+
+    private Game createGame() {
+        Game game = new Game();
+        game.setId(ID);
+        game.setTitle(TITLE);
+        game.setDeveloper(DEVELOPER);
+        return game;
+    }
+}
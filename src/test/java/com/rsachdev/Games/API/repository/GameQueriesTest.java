@@ -0,0 +1,36 @@
+package com.rsachdev.Games.API.repository;
+
+import com.rsachdev.Games.API.model.GameFilter;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class GameQueriesTest {
+
+    @Test
+    @DisplayName("Test a filtered query ignores case through the collation of the filter indexes")
+    void filteredQueryIgnoresCase() {
+        GameFilter filter = new GameFilter();
+        filter.setDeveloper("  Big Studio ");
+        filter.setGenres(Collections.singletonList("Racing"));
+
+        Query query = GameQueries.matching(filter);
+
+        assertEquals("Big Studio", query.getQueryObject().get("developer"));
+        assertEquals(Optional.of(GameQueries.FILTER_COLLATION), query.getCollation());
+        assertEquals(new Document("locale", "en").append("strength", 2), GameQueries.FILTER_COLLATION.toDocument());
+    }
+
+    @Test
+    @DisplayName("Test an unfiltered query keeps the simple collation, so the _id index serves it")
+    void unfilteredQueryHasNoCollation() {
+        assertFalse(GameQueries.matching(new GameFilter()).getCollation().isPresent());
+    }
+}
@@ -0,0 +1,93 @@
+package com.rsachdev.Games.API.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.rsachdev.Games.API.model.Game;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GameRepositoryImplTest {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int WRITE_CONCERN_FAILED = 64;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoTemplate readMongoTemplate;
+
+    @Mock
+    private MongoConverter mongoConverter;
+
+    @Mock
+    private GameWriteConcerns gameWriteConcerns;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @InjectMocks
+    private GameRepositoryImpl gameRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getConverter()).thenReturn(mongoConverter);
+        when(mongoTemplate.getCollectionName(Game.class)).thenReturn("games");
+        when(mongoTemplate.getCollection("games")).thenReturn(collection);
+        when(gameWriteConcerns.forInsert(collection)).thenReturn(collection);
+    }
+
+    @Test
+    @DisplayName("Test unordered insert reports each game with a write error")
+    void insertUnorderedWriteErrors() {
+        List<BulkWriteError> errors = Collections.singletonList(new BulkWriteError(DUPLICATE_KEY, "duplicate", new BsonDocument(), 1));
+        doThrow(bulkWriteException(errors, null)).when(collection).insertMany(anyList(), any(InsertManyOptions.class));
+
+        Map<Integer, Integer> failures = gameRepository.insertUnordered(Arrays.asList(new Game(), new Game(), new Game()));
+        assertEquals(Collections.singletonMap(1, DUPLICATE_KEY), failures);
+    }
+
+    @Test
+    @DisplayName("Test unordered insert that misses its write concern reports every game as failed")
+    void insertUnorderedWriteConcernError() {
+        List<BulkWriteError> errors = Collections.singletonList(new BulkWriteError(DUPLICATE_KEY, "duplicate", new BsonDocument(), 1));
+        WriteConcernError writeConcernError = new WriteConcernError(WRITE_CONCERN_FAILED, "waiting for replication timed out", new BsonDocument());
+        doThrow(bulkWriteException(errors, writeConcernError)).when(collection).insertMany(anyList(), any(InsertManyOptions.class));
+
+        Map<Integer, Integer> failures = gameRepository.insertUnordered(Arrays.asList(new Game(), new Game(), new Game()));
+        assertEquals(3, failures.size());
+        assertEquals(Integer.valueOf(WRITE_CONCERN_FAILED), failures.get(0));
+        assertEquals(Integer.valueOf(DUPLICATE_KEY), failures.get(1));
+        assertEquals(Integer.valueOf(WRITE_CONCERN_FAILED), failures.get(2));
+    }
+
+    private MongoBulkWriteException bulkWriteException(List<BulkWriteError> errors, WriteConcernError writeConcernError) {
+        BulkWriteResult result = BulkWriteResult.acknowledged(2, 0, 0, 0, Collections.emptyList());
+        return new MongoBulkWriteException(result, errors, writeConcernError, new ServerAddress());
+    }
+}
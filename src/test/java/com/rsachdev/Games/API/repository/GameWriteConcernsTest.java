@@ -0,0 +1,52 @@
+package com.rsachdev.Games.API.repository;
+
+import com.mongodb.WriteConcern;
+import com.rsachdev.Games.API.model.Game;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GameWriteConcernsTest {
+    private GameWriteConcerns gameWriteConcerns = new GameWriteConcerns();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameWriteConcerns, "insertName", "majority");
+        ReflectionTestUtils.setField(gameWriteConcerns, "updateName", "w2");
+        ReflectionTestUtils.setField(gameWriteConcerns, "deleteName", "");
+        gameWriteConcerns.init();
+    }
+
+    @Test
+    @DisplayName("Test each kind of write resolves to its configured write concern")
+    void resolvedByOperation() {
+        assertEquals(WriteConcern.MAJORITY, gameWriteConcerns.resolve(action(MongoActionOperation.INSERT)));
+        assertEquals(WriteConcern.MAJORITY, gameWriteConcerns.resolve(action(MongoActionOperation.SAVE)));
+        assertEquals(WriteConcern.W2, gameWriteConcerns.resolve(action(MongoActionOperation.UPDATE)));
+    }
+
+    @Test
+    @DisplayName("Test an unconfigured kind of write keeps the default write concern")
+    void defaultWhenUnconfigured() {
+        assertEquals(WriteConcern.ACKNOWLEDGED, gameWriteConcerns.resolve(action(MongoActionOperation.REMOVE)));
+        assertNull(GameWriteConcerns.parse(" "));
+    }
+
+    @Test
+    @DisplayName("Test an unknown write concern is rejected")
+    void unknownWriteConcern() {
+        assertThrows(IllegalArgumentException.class, () -> GameWriteConcerns.parse("most"));
+    }
+
+    private MongoAction action(MongoActionOperation operation) {
+        return new MongoAction(WriteConcern.ACKNOWLEDGED, operation, "games", Game.class, new Document(), new Document());
+    }
+}
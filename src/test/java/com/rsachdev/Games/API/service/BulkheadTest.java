@@ -0,0 +1,78 @@
+package com.rsachdev.Games.API.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BulkheadTest {
+    private static final long TIMEOUT_MS = 100;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Bulkhead bulkhead = new Bulkhead("test", 1, 1, TIMEOUT_MS);
+    private CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        bulkhead.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkhead.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test calls beyond the threads and queue are rejected")
+    void callsRejectedWhenFull() {
+        bulkhead.submit(this::blockUntilReleased);
+        bulkhead.submit(this::blockUntilReleased);
+
+        assertThrows(RejectedExecutionException.class, () -> bulkhead.submit(() -> "rejected"));
+        assertEquals(1.0, meterRegistry.get("games.bulkhead.rejected").tag("name", "test").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Test call gives up after the timeout and its queued task is skipped")
+    void callTimesOut() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        bulkhead.submit(this::blockUntilReleased);
+
+        assertThrows(TimeoutException.class, () -> bulkhead.call(runs::incrementAndGet));
+
+        release.countDown();
+        assertEquals("released", bulkhead.submit(() -> "released").get(1, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    @DisplayName("Test call returns the task's exception as the cause")
+    void callPropagatesException() {
+        IllegalStateException failure = new IllegalStateException();
+        CompletableFuture<Object> future = bulkhead.submit(() -> {
+            throw failure;
+        });
+
+        ExecutionException ee = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertSame(failure, ee.getCause());
+    }
+
+    private String blockUntilReleased() throws InterruptedException {
+        release.await();
+        return "released";
+    }
+}
@@ -0,0 +1,108 @@
+package com.rsachdev.Games.API.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+    private static final long OPEN_MS = 1000;
+
+    private AtomicLong now = new AtomicLong();
+    private CircuitBreaker circuit = new CircuitBreaker("test", 50, 10, 4, OPEN_MS, 2, now::get);
+
+    @Test
+    @DisplayName("Test circuit stays closed until the minimum number of calls is reached")
+    void closedBelowMinimumCalls() {
+        failures(3);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+        assertTrue(circuit.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Test circuit opens once the failure rate reaches the threshold and refuses calls")
+    void opensAtThreshold() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        circuit.bindTo(meterRegistry);
+        successes(2);
+        failures(2);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+        assertFalse(circuit.tryAcquire());
+        assertEquals(1.0, meterRegistry.get("games.circuit.state").tag("state", "open").gauge().value());
+        assertEquals(1.0, meterRegistry.get("games.circuit.refused").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Test old outcomes leave the window")
+    void windowSlides() {
+        failures(3);
+        successes(10);
+        failures(4);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    @DisplayName("Test circuit half-opens after the open period and closes when its probes succeed")
+    void closesAfterSuccessfulProbes() {
+        failures(4);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(OPEN_MS));
+
+        assertTrue(circuit.tryAcquire());
+        assertTrue(circuit.tryAcquire());
+        assertFalse(circuit.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuit.getState());
+
+        circuit.onSuccess();
+        circuit.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    @DisplayName("Test a failed probe reopens the circuit")
+    void reopensAfterFailedProbe() {
+        failures(4);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(OPEN_MS));
+
+        assertTrue(circuit.tryAcquire());
+        circuit.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+        assertFalse(circuit.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Test an ignored probe frees its place for another")
+    void ignoredProbeReleased() {
+        failures(4);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(OPEN_MS));
+
+        assertTrue(circuit.tryAcquire());
+        assertTrue(circuit.tryAcquire());
+        circuit.onIgnored();
+
+        assertTrue(circuit.tryAcquire());
+    }
+
+    private void failures(int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(circuit.tryAcquire());
+            circuit.onFailure();
+        }
+    }
+
+    private void successes(int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(circuit.tryAcquire());
+            circuit.onSuccess();
+        }
+    }
+}
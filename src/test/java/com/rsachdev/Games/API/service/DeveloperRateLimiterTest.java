@@ -0,0 +1,135 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.exception.RateLimitExceededException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DeveloperRateLimiterTest {
+    private static final String DEVELOPER = "Developer";
+
+    private DeveloperRateLimiter rateLimiter = new DeveloperRateLimiter();
+    private AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "writesPerSecond", 2.0);
+        ReflectionTestUtils.setField(rateLimiter, "burst", 4);
+        ReflectionTestUtils.setField(rateLimiter, "overrides", "Publisher=10/20");
+        ReflectionTestUtils.setField(rateLimiter, "maximumDevelopers", 1000L);
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimiter, "nanoClock", (LongSupplier) now::get);
+        rateLimiter.init();
+    }
+
+    @Test
+    @DisplayName("Test developer may write a burst and is then told when to retry")
+    void burstThenRejected() throws RateLimitExceededException, ValidationException {
+        acquire(DEVELOPER, 4);
+
+        RateLimitExceededException rle = assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(" developer ", 1));
+        assertEquals(1, rle.getRetryAfterSeconds());
+    }
+
+    @Test
+    @DisplayName("Test tokens are replenished at the configured rate")
+    void tokensRefill() throws RateLimitExceededException, ValidationException {
+        acquire(DEVELOPER, 4);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        rateLimiter.acquire(DEVELOPER, 1);
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(DEVELOPER, 1));
+    }
+
+    @Test
+    @DisplayName("Test batches are charged in full, one write per game")
+    void batchesChargedPerGame() throws RateLimitExceededException, ValidationException {
+        rateLimiter.acquire(DEVELOPER, 3);
+
+        RateLimitExceededException rle = assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(DEVELOPER, 2));
+        assertEquals(1, rle.getRetryAfterSeconds());
+        rateLimiter.acquire(DEVELOPER, 1);
+        rateLimiter.acquire("Other", 4);
+    }
+
+    @Test
+    @DisplayName("Test a batch larger than the developer's burst is rejected without being charged")
+    void batchOverBurstRejected() throws RateLimitExceededException, ValidationException {
+        assertThrows(ValidationException.class, () -> rateLimiter.acquire(DEVELOPER, 5));
+
+        acquire(DEVELOPER, 4);
+        rateLimiter.acquire("Publisher", 20);
+    }
+
+    @Test
+    @DisplayName("Test overrides give a developer their own limit")
+    void overridesApplied() throws RateLimitExceededException, ValidationException {
+        acquire("PUBLISHER", 20);
+
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire("publisher", 1));
+    }
+
+    @Test
+    @DisplayName("Test malformed overrides are rejected")
+    void malformedOverridesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DeveloperRateLimiter.parse("Publisher=10"));
+        assertThrows(IllegalArgumentException.class, () -> DeveloperRateLimiter.parse("Publisher=0/5"));
+    }
+
+    @Test
+    @DisplayName("Test concurrent writers share the burst exactly")
+    void concurrentAcquiresExact() throws Exception {
+        ReflectionTestUtils.setField(rateLimiter, "burst", 1000);
+        rateLimiter.init();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            writers.add(() -> {
+                int permitted = 0;
+                for (int j = 0; j < 500; j++) {
+                    try {
+                        rateLimiter.acquire(DEVELOPER, 1);
+                        permitted++;
+                    } catch (RateLimitExceededException rle) {
+                        // refused writes are the ones not counted
+                    }
+                }
+                return permitted;
+            });
+        }
+
+        int permitted = 0;
+        try {
+            for (Future<Integer> result : executor.invokeAll(writers)) {
+                permitted += result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1000, permitted);
+    }
+
+    private void acquire(String developer, int times) throws RateLimitExceededException, ValidationException {
+        for (int i = 0; i < times; i++) {
+            rateLimiter.acquire(developer, 1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.exception.CircuitOpenException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.Developer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class DeveloperRegistryTest {
+    private static final String DEVELOPER_NAME = "Developer";
+    private static final String ETAG = "etag";
+
+    @Mock
+    private AmazonS3Service amazonS3Service;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private DeveloperRegistry developerRegistry;
+
+    private Bulkhead s3Fetches = new Bulkhead("s3", 1, 1, 200);
+    private CircuitBreaker s3Circuit = new CircuitBreaker("s3", 50, 4, 2, 60000, 1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(developerRegistry, "s3Fetches", s3Fetches);
+        ReflectionTestUtils.setField(developerRegistry, "s3Circuit", s3Circuit);
+        developerRegistry.registerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Fetches.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test index matches names ignoring case and surrounding whitespace")
+    void indexMatchesNormalisedNames() {
+        DeveloperIndex index = DeveloperIndex.of(createDevelopers(" Developer ", "EA", "Ubisoft"));
+
+        assertEquals(3, index.size());
+        assertTrue(index.contains("developer"));
+        assertTrue(index.contains("  DEVELOPER"));
+        assertTrue(index.contains("ea"));
+        assertFalse(index.contains("dev"));
+        assertFalse(index.contains(""));
+        assertFalse(index.contains(null));
+    }
+
+    @Test
+    @DisplayName("Test index built from large developer list")
+    void indexMatchesLargeDeveloperList() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            names.add("Developer " + i);
+        }
+        DeveloperIndex index = DeveloperIndex.of(createDevelopers(names.toArray(new String[0])));
+
+        assertEquals(5000, index.size());
+        for (String name : names) {
+            assertTrue(index.contains(name.toUpperCase()));
+        }
+        assertFalse(index.contains("Developer 5000"));
+    }
+
+    @Test
+    @DisplayName("Test empty index matches nothing")
+    void emptyIndexMatchesNothing() {
+        DeveloperIndex index = DeveloperIndex.of(Collections.emptyList());
+
+        assertEquals(0, index.size());
+        assertFalse(index.contains(DEVELOPER_NAME));
+    }
+
+    @Test
+    @DisplayName("Test registry loads developers once")
+    void registryLoadsDevelopersOnce() throws ServiceException {
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenReturn(createIndex(DEVELOPER_NAME));
+
+        assertTrue(developerRegistry.isAuthorised(DEVELOPER_NAME));
+        assertFalse(developerRegistry.isAuthorised("Not Authorised"));
+        verify(amazonS3Service, times(1)).getAuthorisedDevelopers(null);
+    }
+
+    @Test
+    @DisplayName("Test registry unsuccessful load - ServiceException")
+    void registryLoadUnsuccessful() throws ServiceException {
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenThrow(ServiceException.class);
+
+        assertThrows(ServiceException.class, () -> developerRegistry.isAuthorised(DEVELOPER_NAME));
+        assertEquals(1.0, meterRegistry.get("developers.refresh.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test registry gives up on a download that exceeds the S3 timeout")
+    void registryLoadTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenAnswer(invocation -> {
+            release.await();
+            return createIndex(DEVELOPER_NAME);
+        });
+
+        try {
+            assertThrows(ServiceException.class, () -> developerRegistry.isAuthorised(DEVELOPER_NAME));
+            assertFalse(developerRegistry.isLoaded());
+            assertEquals(1.0, meterRegistry.get("developers.refresh.failures").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test registry stops calling S3 once its circuit opens")
+    void registryFailsFastWhenCircuitOpen() throws ServiceException {
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenThrow(ServiceException.class);
+
+        assertThrows(ServiceException.class, () -> developerRegistry.isAuthorised(DEVELOPER_NAME));
+        assertThrows(ServiceException.class, () -> developerRegistry.isAuthorised(DEVELOPER_NAME));
+        assertThrows(CircuitOpenException.class, () -> developerRegistry.isAuthorised(DEVELOPER_NAME));
+
+        verify(amazonS3Service, times(2)).getAuthorisedDevelopers(null);
+        assertEquals(CircuitBreaker.State.OPEN, s3Circuit.getState());
+    }
+
+    @Test
+    @DisplayName("Test refresh keeps last known snapshot while the S3 circuit is open")
+    void refreshKeepsSnapshotWhenCircuitOpen() throws ServiceException {
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenReturn(createIndex(DEVELOPER_NAME));
+        doThrow(ServiceException.class).when(amazonS3Service).getAuthorisedDevelopers(ETAG);
+
+        developerRegistry.refresh();
+        developerRegistry.refresh();
+        developerRegistry.refresh();
+        developerRegistry.refresh();
+
+        assertTrue(developerRegistry.isAuthorised(DEVELOPER_NAME));
+        verify(amazonS3Service, times(1)).getAuthorisedDevelopers(ETAG);
+    }
+
+    @Test
+    @DisplayName("Test refresh replaces snapshot when developers.json has changed")
+    void refreshReplacesChangedSnapshot() throws ServiceException {
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenReturn(createIndex(DEVELOPER_NAME));
+        doReturn(createIndex("New Developer")).when(amazonS3Service).getAuthorisedDevelopers(ETAG);
+
+        developerRegistry.refresh();
+        developerRegistry.refresh();
+
+        assertTrue(developerRegistry.isAuthorised("New Developer"));
+        assertFalse(developerRegistry.isAuthorised(DEVELOPER_NAME));
+    }
+
+    @Test
+    @DisplayName("Test refresh keeps snapshot when developers.json is unchanged")
+    void refreshKeepsUnchangedSnapshot() throws ServiceException {
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenReturn(createIndex(DEVELOPER_NAME));
+        doReturn(null).when(amazonS3Service).getAuthorisedDevelopers(ETAG);
+
+        developerRegistry.refresh();
+        developerRegistry.refresh();
+
+        assertTrue(developerRegistry.isAuthorised(DEVELOPER_NAME));
+        assertEquals(2, meterRegistry.get("developers.refresh").timer().count());
+    }
+
+    @Test
+    @DisplayName("Test refresh keeps last known snapshot when S3 is unavailable")
+    void refreshKeepsSnapshotOnFailure() throws ServiceException {
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenReturn(createIndex(DEVELOPER_NAME));
+        doThrow(ServiceException.class).when(amazonS3Service).getAuthorisedDevelopers(ETAG);
+
+        developerRegistry.refresh();
+        developerRegistry.refresh();
+
+        assertTrue(developerRegistry.isAuthorised(DEVELOPER_NAME));
+        assertEquals(1.0, meterRegistry.get("developers.refresh.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test a create on a cold start does not wait behind a refresh that is waiting on S3")
+    void coldStartDoesNotWaitForRefresh() throws Exception {
+        Bulkhead twoFetches = new Bulkhead("s3", 2, 1, 5000);
+        ReflectionTestUtils.setField(developerRegistry, "s3Fetches", twoFetches);
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(amazonS3Service.getAuthorisedDevelopers(null)).thenAnswer(invocation -> {
+            if (refreshing.getCount() > 0) {
+                refreshing.countDown();
+                release.await();
+            }
+            return createIndex(DEVELOPER_NAME);
+        });
+
+        Thread refresh = new Thread(developerRegistry::refresh);
+        refresh.start();
+
+        try {
+            assertTrue(refreshing.await(1, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertTrue(developerRegistry.isAuthorised(DEVELOPER_NAME)));
+        } finally {
+            release.countDown();
+            refresh.join();
+            twoFetches.shutdown();
+        }
+    }
+
+    private DeveloperIndex createIndex(String... names) {
+        return DeveloperIndex.of(createDevelopers(names), ETAG);
+    }
+
+    private List<Developer> createDevelopers(String... names) {
+        List<Developer> developers = new ArrayList<>();
+        for (String name : names) {
+            Developer developer = new Developer();
+            developer.setName(name);
+            developers.add(developer);
+        }
+        return developers;
+    }
+}
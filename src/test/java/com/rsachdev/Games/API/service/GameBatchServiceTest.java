@@ -0,0 +1,241 @@
+package com.rsachdev.Games.API.service;
+
+import com.mongodb.MongoException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.BatchItemResult.Status;
+import com.rsachdev.Games.API.model.BatchResult;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.repository.GameRepository;
+import com.rsachdev.Games.API.validation.GameValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class GameBatchServiceTest {
+    private static final String DEVELOPER_NAME = "developer";
+    private static final String TITLE = "title";
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private DeveloperRegistry developerRegistry;
+
+    @Mock
+    private TitleSearchIndex titleSearchIndex;
+
+    @Spy
+    private GameValidator gameValidator = new GameValidator();
+
+    @Spy
+    private GameCache gameCache = new GameCache();
+
+    @InjectMocks
+    private GameBatchService gameBatchService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameBatchService, "maxSize", 10);
+        ReflectionTestUtils.setField(gameBatchService, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("Test create batch successful - written in chunks")
+    void createGamesSuccessful() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames(null, null, null);
+
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(gameRepository.insertUnordered(anyList())).thenReturn(Collections.emptyMap());
+
+        BatchResult result = gameBatchService.createGames(games, DEVELOPER_NAME);
+        assertEquals(3, result.getItems().size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, result.getItems().get(i).getIndex());
+            assertEquals(Status.CREATED, result.getItems().get(i).getStatus());
+            assertNotNull(result.getItems().get(i).getId());
+        }
+        verify(gameRepository, times(2)).insertUnordered(anyList());
+    }
+
+    @Test
+    @DisplayName("Test create batch - invalid, unauthorised and duplicate items reported individually")
+    void createGamesPartiallySuccessful() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames(null, null, null, null);
+        games.get(0).setTitle(" ");
+        games.get(1).setDeveloper("Not Authorised");
+
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(gameRepository.insertUnordered(anyList())).thenReturn(Collections.singletonMap(1, 11000));
+
+        BatchResult result = gameBatchService.createGames(games, DEVELOPER_NAME);
+        assertEquals(Status.INVALID, result.getItems().get(0).getStatus());
+        assertEquals(1, result.getItems().get(0).getErrors().size());
+        assertEquals(Status.UNAUTHORISED, result.getItems().get(1).getStatus());
+        assertEquals(Status.CREATED, result.getItems().get(2).getStatus());
+        assertEquals(Status.DUPLICATE, result.getItems().get(3).getStatus());
+    }
+
+    @Test
+    @DisplayName("Test create batch under reserved ids - games created by an earlier attempt are reported as created")
+    void createGamesReservedIds() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames(null, null);
+
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(gameRepository.insertUnordered(anyList())).thenReturn(Collections.singletonMap(1, 11000));
+
+        BatchResult result = gameBatchService.createGames(games, DEVELOPER_NAME, Arrays.asList("first", "second"));
+        assertEquals("first", result.getItems().get(0).getId());
+        assertEquals(Status.CREATED, result.getItems().get(0).getStatus());
+        assertEquals("second", result.getItems().get(1).getId());
+        assertEquals(Status.CREATED, result.getItems().get(1).getStatus());
+    }
+
+    @Test
+    @DisplayName("Test create and update batch - null items are reported as invalid")
+    void nullItemsInvalid() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames(null, null);
+        games.set(1, null);
+
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(gameRepository.insertUnordered(anyList())).thenReturn(Collections.emptyMap());
+
+        BatchResult created = gameBatchService.createGames(Collections.singletonList(null), DEVELOPER_NAME);
+        assertEquals(Status.INVALID, created.getItems().get(0).getStatus());
+        assertEquals(Collections.singletonList("Game must not be null"), created.getItems().get(0).getErrors());
+        verify(gameRepository, never()).insertUnordered(anyList());
+
+        BatchResult updated = gameBatchService.updateGames(Collections.singletonList(null), DEVELOPER_NAME);
+        assertEquals(Status.INVALID, updated.getItems().get(0).getStatus());
+
+        BatchResult mixed = gameBatchService.createGames(games, DEVELOPER_NAME);
+        assertEquals(Status.CREATED, mixed.getItems().get(0).getStatus());
+        assertEquals(Status.INVALID, mixed.getItems().get(1).getStatus());
+    }
+
+    @Test
+    @DisplayName("Test create batch - failed chunk does not fail the batch")
+    void createGamesChunkMongoException() throws ServiceException, UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames(null, null, null);
+
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(gameRepository.insertUnordered(anyList()))
+                .thenThrow(MongoException.class)
+                .thenReturn(Collections.emptyMap());
+
+        BatchResult result = gameBatchService.createGames(games, DEVELOPER_NAME);
+        assertEquals(Status.ERROR, result.getItems().get(0).getStatus());
+        assertEquals(Status.ERROR, result.getItems().get(1).getStatus());
+        assertEquals(Status.CREATED, result.getItems().get(2).getStatus());
+    }
+
+    @Test
+    @DisplayName("Test create batch unsuccessful - unauthorised developer")
+    void createGamesUnsuccessfulUnauthorised() throws ServiceException {
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(false);
+
+        assertThrows(UnauthorisedDeveloperException.class, () -> gameBatchService.createGames(createGames((String) null), DEVELOPER_NAME));
+        verify(gameRepository, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    @DisplayName("Test create batch unsuccessful - too many games")
+    void createGamesUnsuccessfulTooLarge() {
+        List<Game> games = createGames(new String[11]);
+
+        assertThrows(ValidationException.class, () -> gameBatchService.createGames(games, DEVELOPER_NAME));
+    }
+
+    @Test
+    @DisplayName("Test update batch successful")
+    void updateGamesSuccessful() throws UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames("a", "b");
+
+        when(gameRepository.updateUnorderedIfDeveloper(anyList(), eq(DEVELOPER_NAME))).thenReturn(2L);
+
+        BatchResult result = gameBatchService.updateGames(games, DEVELOPER_NAME);
+        assertEquals(Status.UPDATED, result.getItems().get(0).getStatus());
+        assertEquals(Status.UPDATED, result.getItems().get(1).getStatus());
+        verify(gameRepository, never()).findAllById(any());
+        verify(gameCache, times(1)).invalidate("a");
+        verify(gameCache, times(1)).invalidate("b");
+    }
+
+    @Test
+    @DisplayName("Test update batch - missing and foreign games reported individually")
+    void updateGamesPartiallySuccessful() throws UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames("a", "b", "c", null);
+        List<Game> existing = createGames("a", "b");
+        existing.get(1).setDeveloper("Not Authorised");
+
+        when(gameRepository.updateUnorderedIfDeveloper(anyList(), eq(DEVELOPER_NAME))).thenReturn(1L, 0L);
+        when(gameRepository.findAllById(any())).thenReturn(existing);
+
+        BatchResult result = gameBatchService.updateGames(games, DEVELOPER_NAME);
+        assertEquals(Status.UPDATED, result.getItems().get(0).getStatus());
+        assertEquals(Status.UNAUTHORISED, result.getItems().get(1).getStatus());
+        assertEquals(Status.NOT_FOUND, result.getItems().get(2).getStatus());
+        assertEquals(Status.INVALID, result.getItems().get(3).getStatus());
+    }
+
+    @Test
+    @DisplayName("Test update batch - failed lookup of unmatched games fails only its chunk")
+    void updateGamesChunkLookupFailure() throws UnauthorisedDeveloperException, ValidationException {
+        List<Game> games = createGames("a", "b", "c");
+
+        when(gameRepository.updateUnorderedIfDeveloper(anyList(), eq(DEVELOPER_NAME))).thenReturn(1L, 1L);
+        when(gameRepository.findAllById(any())).thenThrow(new DataAccessResourceFailureException("timed out"));
+
+        BatchResult result = gameBatchService.updateGames(games, DEVELOPER_NAME);
+        assertEquals(Status.ERROR, result.getItems().get(0).getStatus());
+        assertEquals(Status.ERROR, result.getItems().get(1).getStatus());
+        assertEquals(Status.UPDATED, result.getItems().get(2).getStatus());
+        verify(gameCache, times(1)).invalidate("a");
+        verify(gameCache, times(1)).invalidate("b");
+    }
+
+    @Test
+    @DisplayName("Test update batch unsuccessful - null developer")
+    void updateGamesUnsuccessfulNullDeveloper() {
+        assertThrows(UnauthorisedDeveloperException.class, () -> gameBatchService.updateGames(createGames("a"), null));
+    }
+
+    private List<Game> createGames(String... ids) {
+        List<Game> games = new ArrayList<>();
+        for (String id : ids) {
+            Game game = new Game();
+            game.setId(id);
+            game.setTitle(TITLE);
+            game.setDeveloper(DEVELOPER_NAME);
+            games.add(game);
+        }
+        return games;
+    }
+}
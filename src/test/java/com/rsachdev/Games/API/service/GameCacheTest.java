@@ -0,0 +1,108 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.model.Game;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class GameCacheTest {
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GameCache gameCache = new GameCache();
+    private AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameCache, "enabled", true);
+        ReflectionTestUtils.setField(gameCache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(gameCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(gameCache, "negativeTtlSeconds", 60L);
+        ReflectionTestUtils.setField(gameCache, "meterRegistry", meterRegistry);
+        gameCache.init();
+    }
+
+    @Test
+    @DisplayName("Test repeated lookups are served from the cache")
+    void repeatedLookupsHitCache() {
+        Game game = createGame();
+
+        assertEquals(game, gameCache.get(ID, id -> load(Optional.of(game))).get());
+        assertEquals(game, gameCache.get(ID, id -> load(Optional.of(game))).get());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Test misses are cached")
+    void missesAreCached() {
+        assertFalse(gameCache.get(ID, id -> load(Optional.empty())).isPresent());
+        assertFalse(gameCache.get(ID, id -> load(Optional.empty())).isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test invalidate forces the next lookup to load")
+    void invalidateForcesReload() {
+        Game game = createGame();
+
+        gameCache.get(ID, id -> load(Optional.of(game)));
+        gameCache.invalidate(ID);
+        gameCache.get(ID, id -> load(Optional.of(game)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test a write finishing late does not replace a newer version")
+    void putKeepsNewerVersion() {
+        Game newer = createGame();
+        newer.setVersion(5L);
+        Game older = createGame();
+        older.setVersion(4L);
+
+        gameCache.put(ID, Optional.of(newer));
+        gameCache.put(ID, Optional.of(older));
+        assertEquals(newer, gameCache.getIfPresent(ID).get());
+
+        gameCache.put(ID, Optional.empty());
+        assertFalse(gameCache.getIfPresent(ID).isPresent());
+    }
+
+    @Test
+    @DisplayName("Test disabled cache passes every lookup through")
+    void disabledCachePassesThrough() {
+        GameCache disabled = new GameCache();
+
+        disabled.get(ID, id -> load(Optional.empty()));
+        disabled.get(ID, id -> load(Optional.empty()));
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<Game> load(Optional<Game> game) {
+        loads.incrementAndGet();
+        return game;
+    }
+
+    private Game createGame() {
+        Game game = new Game();
+        game.setId(ID);
+        game.setTitle(TITLE);
+        return game;
+    }
+}
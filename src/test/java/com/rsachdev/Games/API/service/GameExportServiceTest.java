@@ -0,0 +1,122 @@
+package com.rsachdev.Games.API.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class GameExportServiceTest {
+    private static final String AFTER = "a";
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Spy
+    private ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private GameExportService gameExportService;
+
+    private GameFilter filter = new GameFilter();
+    private boolean closed;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameExportService, "batchSize", BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Test export writes one game per line")
+    void exportGamesSuccessful() throws IOException {
+        when(gameRepository.streamAfter(filter, AFTER, BATCH_SIZE)).thenReturn(iterator(createGame("b"), createGame("c")));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        gameExportService.exportGames(filter, AFTER, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8.name()).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        assertEquals("b", mapper.readValue(lines[0], Game.class).getId());
+        assertEquals(LocalDate.of(2019, 7, 16), mapper.readValue(lines[1], Game.class).getReleaseDate());
+        assertTrue(closed);
+    }
+
+    @Test
+    @DisplayName("Test export of no games writes nothing")
+    void exportNoGames() throws IOException {
+        when(gameRepository.streamAfter(filter, AFTER, BATCH_SIZE)).thenReturn(iterator());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        gameExportService.exportGames(filter, AFTER, outputStream);
+
+        assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    @DisplayName("Test export unsuccessful - DataAccessException")
+    void exportGamesUnsuccessfulDataAccessException() {
+        when(gameRepository.streamAfter(filter, AFTER, BATCH_SIZE)).thenThrow(new DataAccessResourceFailureException("timed out"));
+
+        assertThrows(IOException.class, () -> gameExportService.exportGames(filter, AFTER, new ByteArrayOutputStream()));
+    }
+
+    private CloseableIterator<Game> iterator(Game... games) {
+        Iterator<Game> iterator = Arrays.asList(games).iterator();
+
+        return new CloseableIterator<Game>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Game next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+    }
+
+    private Game createGame(String id) {
+        Game game = new Game();
+        game.setId(id);
+        game.setTitle("title");
+        game.setDeveloper("developer");
+        game.setReleaseDate(LocalDate.of(2019, 7, 16));
+        List<String> genres = Arrays.asList("Sports", "Football");
+        game.setGenres(genres);
+        return game;
+    }
+}
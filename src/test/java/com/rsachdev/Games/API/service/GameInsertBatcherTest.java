@@ -0,0 +1,132 @@
+package com.rsachdev.Games.API.service;
+
+import com.mongodb.DuplicateKeyException;
+import com.mongodb.MongoException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.repository.GameRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GameInsertBatcherTest {
+    private static final int BATCH_SIZE = 3;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private GameInsertBatcher gameInsertBatcher;
+
+    private ExecutorService callers = Executors.newFixedThreadPool(BATCH_SIZE);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        gameInsertBatcher.stop();
+    }
+
+    @Test
+    @DisplayName("Test concurrent inserts are written as one bulk insert")
+    void insertsCoalesced() throws Exception {
+        start(60000);
+        when(gameRepository.insertUnordered(anyList())).thenReturn(Collections.emptyMap());
+
+        List<Future<Game>> results = insertAll();
+
+        for (Future<Game> result : results) {
+            assertEquals(Long.valueOf(0), result.get(5, TimeUnit.SECONDS).getVersion());
+        }
+        ArgumentCaptor<List<Game>> batch = ArgumentCaptor.forClass(List.class);
+        verify(gameRepository, times(1)).insertUnordered(batch.capture());
+        assertEquals(BATCH_SIZE, batch.getValue().size());
+        assertEquals(1, meterRegistry.get("games.inserts.batch.size").summary().count());
+    }
+
+    @Test
+    @DisplayName("Test each caller gets the outcome of its own insert")
+    void outcomesPerCaller() throws Exception {
+        start(60000);
+        when(gameRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            List<Game> games = invocation.getArgument(0);
+            for (int i = 0; i < games.size(); i++) {
+                if (games.get(i).getTitle().equals("title 1")) {
+                    return Collections.singletonMap(i, 11000);
+                }
+            }
+            return Collections.emptyMap();
+        });
+
+        List<Future<Game>> results = insertAll();
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Future<Game> result = results.get(i);
+            if (i == 1) {
+                ExecutionException ee = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertTrue(ee.getCause() instanceof DuplicateKeyException);
+            } else {
+                assertEquals("title " + i, result.get(5, TimeUnit.SECONDS).getTitle());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test a failed bulk insert fails every caller in it")
+    void failedBatchFailsCallers() throws Exception {
+        start(0);
+        MongoException failure = new MongoException("unavailable");
+        when(gameRepository.insertUnordered(anyList())).thenThrow(failure);
+
+        Game game = new Game();
+        game.setTitle("title");
+
+        assertEquals(failure, assertThrows(MongoException.class, () -> gameInsertBatcher.insert(game)));
+    }
+
+    private void start(long lingerMs) {
+        ReflectionTestUtils.setField(gameInsertBatcher, "enabled", true);
+        ReflectionTestUtils.setField(gameInsertBatcher, "maxBatchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(gameInsertBatcher, "lingerMs", lingerMs);
+        ReflectionTestUtils.setField(gameInsertBatcher, "queueCapacity", 10);
+        gameInsertBatcher.start();
+    }
+
+    private List<Future<Game>> insertAll() {
+        List<Future<Game>> results = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Game game = new Game();
+            game.setTitle("title " + i);
+            results.add(callers.submit(() -> gameInsertBatcher.insert(game)));
+        }
+        return results;
+    }
+}
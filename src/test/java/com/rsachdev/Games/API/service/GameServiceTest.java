@@ -2,36 +2,52 @@ package com.rsachdev.Games.API.service;
 
 import com.mongodb.DuplicateKeyException;
 import com.mongodb.MongoException;
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
 import com.rsachdev.Games.API.exception.ResourceNotFoundException;
 import com.rsachdev.Games.API.exception.ServiceException;
 import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
 import com.rsachdev.Games.API.exception.ValidationException;
-import com.rsachdev.Games.API.model.Developer;
 import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.GameTitle;
+import com.rsachdev.Games.API.model.GameTitles;
 import com.rsachdev.Games.API.model.Games;
 import com.rsachdev.Games.API.repository.GameRepository;
 import com.rsachdev.Games.API.validation.GameValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,17 +55,24 @@ import static org.mockito.Mockito.*;
 public class GameServiceTest {
     private static final String ID = "id";
     private static final String DEVELOPER_NAME = "developer";
-    private static final Developer DEVELOPER = new Developer();
     private static final String TITLE = "title";
     private static final String START_INDEX = "0";
     private static final String ITEMS_PER_PAGE = "5";
-    private List<Developer> authorisedDevelopers = new ArrayList<>();
+    private static final Long VERSION = 3L;
+    private static final GameFilter NO_FILTER = new GameFilter();
+    private static final Sort ID_ORDER = Sort.by("id");
 
     @Mock
-    Page<Game> gamePage;
+    Slice<Game> gameSlice;
 
     @Mock
-    private AmazonS3Service amazonS3Service;
+    private GameCountCache gameCountCache;
+
+    @Mock
+    private DeveloperRegistry developerRegistry;
+
+    @Mock
+    private TitleSearchIndex titleSearchIndex;
 
     @Mock
     private GameValidator gameValidator;
@@ -57,25 +80,50 @@ public class GameServiceTest {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private GameInsertBatcher gameInsertBatcher;
+
+    @Spy
+    private GameCache gameCache = new GameCache();
+
     @InjectMocks
     private GameService gameService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameService, "maxItemsPerPage", 100);
+        ReflectionTestUtils.setField(gameService, "maxSearchResults", 50);
+    }
+
     @Test
     @DisplayName("Test get by id successful")
     void getByIdSuccessful() throws ResourceNotFoundException, ServiceException {
         Game game = createGame();
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
+        when(gameRepository.findProjected(ID, GameFields.ALL)).thenReturn(Optional.of(game));
 
         Game serviceGame = gameService.getById(ID);
         assertNotNull(game);
         assertEquals(game, serviceGame);
     }
 
+    @Test
+    @DisplayName("Test get by id with fields reads a projection past the cache")
+    void getByIdProjectedSuccessful() throws ResourceNotFoundException, ServiceException, ValidationException {
+        GameFields fields = GameFields.of("title");
+        Game game = new Game();
+        game.setId(ID);
+        game.setTitle(TITLE);
+        when(gameRepository.findProjected(ID, fields)).thenReturn(Optional.of(game));
+
+        assertEquals(game, gameService.getById(ID, fields));
+        verify(gameCache, never()).get(eq(ID), any());
+    }
+
     @Test
     @DisplayName("Test get by id unsuccessful - MongoException")
     void getByIdUnsuccessfulMongoException() {
-        when(gameRepository.findById(ID)).thenThrow(MongoException.class);
+        when(gameRepository.findProjected(ID, GameFields.ALL)).thenThrow(MongoException.class);
 
         assertThrows(ServiceException.class, () -> gameService.getById(ID));
     }
@@ -83,24 +131,59 @@ public class GameServiceTest {
     @Test
     @DisplayName("Test get by id unsuccessful - not found")
     void getByIdUnsuccessfulNotFound() {
-        when(gameRepository.findById(ID)).thenReturn(Optional.empty());
+        when(gameRepository.findProjected(ID, GameFields.ALL)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> gameService.getById(ID));
     }
 
+    @Test
+    @DisplayName("Test find by id returns an empty result for a missing game")
+    void findByIdNotFound() throws ServiceException {
+        when(gameRepository.findProjected(ID, GameFields.ALL)).thenReturn(Optional.empty());
+
+        assertFalse(gameService.findById(ID, GameFields.ALL).isPresent());
+    }
+
     @Test
     @DisplayName("Test create game successful")
     void createGameSuccessful() throws UnauthorisedDeveloperException, ServiceException, ValidationException, IOException {
         Game game = createGame();
-        setAuthorisedDevelopers();
 
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
-        when(amazonS3Service.getAuthorisedDevelopers()).thenReturn(authorisedDevelopers);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
         when(gameRepository.insert(game)).thenReturn(game);
 
         Game insertedGame = gameService.createGame(game, DEVELOPER_NAME);
         assertNotNull(insertedGame);
         assertEquals(game, insertedGame);
+        verify(titleSearchIndex).index(game);
+    }
+
+    @Test
+    @DisplayName("Test create game under an id reserved in advance")
+    void createGameReservedId() throws UnauthorisedDeveloperException, ServiceException, ValidationException {
+        Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(gameRepository.insert(game)).thenReturn(game);
+
+        assertEquals("reserved", gameService.createGame(game, DEVELOPER_NAME, "reserved").getId());
+    }
+
+    @Test
+    @DisplayName("Test create game through the insert batcher when enabled")
+    void createGameBatched() throws UnauthorisedDeveloperException, ServiceException, ValidationException {
+        Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(gameInsertBatcher.isEnabled()).thenReturn(true);
+        when(gameInsertBatcher.insert(game)).thenReturn(game);
+
+        assertEquals(game, gameService.createGame(game, DEVELOPER_NAME));
+        verify(gameRepository, never()).insert(any(Game.class));
+        verify(titleSearchIndex).index(game);
     }
 
     @Test
@@ -108,10 +191,9 @@ public class GameServiceTest {
     void createGameUnsuccessfulUnauthorised() throws ServiceException {
         Game game = createGame();
         game.setDeveloper("Not Authorised");
-        setAuthorisedDevelopers();
 
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
-        when(amazonS3Service.getAuthorisedDevelopers()).thenReturn(authorisedDevelopers);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
 
         assertThrows(UnauthorisedDeveloperException.class, () -> gameService.createGame(game, DEVELOPER_NAME));
     }
@@ -130,7 +212,6 @@ public class GameServiceTest {
     @DisplayName("Test create game unsuccessful - validation error")
     void createGameUnsuccessfulValidationError() {
         Game game = createGame();
-        setAuthorisedDevelopers();
         List<String> errors = new ArrayList<>();
         errors.add("error");
 
@@ -143,10 +224,9 @@ public class GameServiceTest {
     @DisplayName("Test create game unsuccessful - ServiceException from S3Service")
     void createGameUnsuccessfulS3ServiceException() throws ServiceException {
         Game game = createGame();
-        setAuthorisedDevelopers();
 
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
-        when(amazonS3Service.getAuthorisedDevelopers()).thenThrow(ServiceException.class);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenThrow(ServiceException.class);
 
         assertThrows(ServiceException.class, () -> gameService.createGame(game, DEVELOPER_NAME));
     }
@@ -155,10 +235,9 @@ public class GameServiceTest {
     @DisplayName("Test create game unsuccessful - MongoException")
     void createGameUnsuccessfulMongoException() throws ServiceException {
         Game game = createGame();
-        setAuthorisedDevelopers();
 
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
-        when(amazonS3Service.getAuthorisedDevelopers()).thenReturn(authorisedDevelopers);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
         when(gameRepository.insert(game)).thenThrow(MongoException.class);
 
         assertThrows(ServiceException.class, () -> gameService.createGame(game, DEVELOPER_NAME));
@@ -168,10 +247,9 @@ public class GameServiceTest {
     @DisplayName("Test create game unsuccessful - DuplicateKeyException")
     void createGameUnsuccessfulDuplicateKeyException() throws ServiceException {
         Game game = createGame();
-        setAuthorisedDevelopers();
 
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
-        when(amazonS3Service.getAuthorisedDevelopers()).thenReturn(authorisedDevelopers);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
         when(gameRepository.insert(game)).thenThrow(DuplicateKeyException.class);
 
         assertThrows(DuplicateKeyException.class, () -> gameService.createGame(game, DEVELOPER_NAME));
@@ -179,119 +257,368 @@ public class GameServiceTest {
 
     @Test
     @DisplayName("Test update game successful")
-    void updateGameSuccessful() throws UnauthorisedDeveloperException, ServiceException, ValidationException, IOException, ResourceNotFoundException {
+    void updateGameSuccessful() throws UnauthorisedDeveloperException, ServiceException, ValidationException, ResourceNotFoundException, PreconditionFailedException {
         Game game = createGame();
-        ArgumentCaptor<Game> arg = ArgumentCaptor.forClass(Game.class);
+        Game updatedGame = createGame();
+        updatedGame.setVersion(VERSION + 1);
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(gameRepository.updateIfDeveloper(game, DEVELOPER_NAME, VERSION)).thenReturn(updatedGame);
+
+        Game serviceGame = gameService.updateGame(game, ID, DEVELOPER_NAME, VERSION);
+        assertEquals(updatedGame, serviceGame);
+        verify(gameRepository, never()).findById(ID);
+        verify(gameCache, never()).invalidate(ID);
+        verify(gameCache).put(ID, Optional.of(updatedGame));
+        verify(titleSearchIndex).index(updatedGame);
+    }
 
-        gameService.updateGame(game, ID, DEVELOPER_NAME);
-        verify(gameRepository, times(1)).save(arg.capture());
-        assertEquals(game, arg.getValue());
+    @Test
+    @DisplayName("Test an update that finishes after a newer one does not replace it in the cache")
+    void updatesFinishingOutOfOrderKeepNewest() throws Exception {
+        GameCache cache = new GameCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "negativeTtlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+        ReflectionTestUtils.setField(gameService, "gameCache", cache);
+
+        Game first = createGame();
+        Game second = createGame();
+        Game firstWritten = createGame();
+        firstWritten.setVersion(VERSION + 1);
+        Game secondWritten = createGame();
+        secondWritten.setVersion(VERSION + 2);
+        CountDownLatch firstWriting = new CountDownLatch(1);
+        CountDownLatch secondCached = new CountDownLatch(1);
+
+        when(gameValidator.validateNotNullOrEmpty(any())).thenReturn(Collections.emptyList());
+        when(gameRepository.updateIfDeveloper(first, DEVELOPER_NAME, VERSION)).thenAnswer(invocation -> {
+            firstWriting.countDown();
+            secondCached.await();
+            return firstWritten;
+        });
+        doReturn(secondWritten).when(gameRepository).updateIfDeveloper(second, DEVELOPER_NAME, VERSION + 1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Game> firstUpdate = executor.submit(() -> gameService.updateGame(first, ID, DEVELOPER_NAME, VERSION));
+            firstWriting.await();
+            gameService.updateGame(second, ID, DEVELOPER_NAME, VERSION + 1);
+            secondCached.countDown();
+            firstUpdate.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(secondWritten, cache.getIfPresent(ID).get());
     }
 
     @Test
     @DisplayName("Test update game unsuccessful - validation exception")
     void updateGameUnsuccessfulValidationException() {
         Game game = createGame();
-        setAuthorisedDevelopers();
         List<String> errors = new ArrayList<>();
         errors.add("error");
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(errors);
 
-        assertThrows(ValidationException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME));
+        assertThrows(ValidationException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME, null));
     }
 
     @Test
     @DisplayName("Test update game unsuccessful - not found")
     void updateGameUnsuccessfulNotFound() {
         Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
         when(gameRepository.findById(ID)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME));
+        assertThrows(ResourceNotFoundException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME, null));
     }
 
     @Test
     @DisplayName("Test update game unsuccessful - unauthorised")
     void updateGameUnsuccessfulUnauthorised() {
         Game game = createGame();
-        game.setDeveloper("Not Authorised");
+        Game existingGame = createGame();
+        existingGame.setDeveloper("Not Authorised");
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(gameRepository.findById(ID)).thenReturn(Optional.of(existingGame));
 
-        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME));
+        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME, null));
     }
 
     @Test
     @DisplayName("Test update game unsuccessful - unauthorised - null developer")
     void updateGameUnsuccessfulUnauthorisedNullDeveloper() {
         Game game = createGame();
-        setAuthorisedDevelopers();
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
 
-        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.updateGame(game, ID, null));
+        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.updateGame(game, ID, null, null));
+        verifyZeroInteractions(gameRepository);
+    }
+
+    @Test
+    @DisplayName("Test update game unsuccessful - version has changed")
+    void updateGameUnsuccessfulPreconditionFailed() {
+        Game game = createGame();
+        Game existingGame = createGame();
+        existingGame.setVersion(VERSION + 1);
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(gameRepository.findById(ID)).thenReturn(Optional.of(existingGame));
+
+        assertThrows(PreconditionFailedException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME, VERSION));
     }
 
     @Test
     @DisplayName("Test update game unsuccessful - MongoException")
     void updateGameUnsuccessfulMongoException() {
         Game game = createGame();
-        setAuthorisedDevelopers();
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
         when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
-        when(gameRepository.save(game)).thenThrow(MongoException.class);
+        when(gameRepository.updateIfDeveloper(game, DEVELOPER_NAME, null)).thenThrow(MongoException.class);
 
-        assertThrows(ServiceException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME));
+        assertThrows(ServiceException.class, () -> gameService.updateGame(game, ID, DEVELOPER_NAME, null));
+        verify(gameCache, times(1)).invalidate(ID);
     }
 
     @Test
     @DisplayName("Test successful list all games")
-    void listAllGamesSuccessful() throws ServiceException {
+    void listAllGamesSuccessful() throws ServiceException, ValidationException {
         Games games = createGames();
-        Pageable pageable = PageRequest.of(0, 5);
-        when(gameRepository.findAll(pageable)).thenReturn(gamePage);
-        when(gamePage.getContent()).thenReturn(createGames().getItems());
-        when(gamePage.getTotalElements()).thenReturn(1L);
-        when(gamePage.getPageable()).thenReturn(pageable);
-        when(gamePage.getSize()).thenReturn(5);
-
-        Games serviceResult = gameService.listAllGames(START_INDEX, ITEMS_PER_PAGE);
+        Pageable pageable = PageRequest.of(0, 5, ID_ORDER);
+        when(gameRepository.findAllBy(pageable)).thenReturn(gameSlice);
+        when(gameRepository.countMatching(NO_FILTER)).thenReturn(1L);
+        when(gameSlice.getContent()).thenReturn(createGames().getItems());
+        when(gameSlice.getPageable()).thenReturn(pageable);
+        when(gameSlice.getSize()).thenReturn(5);
+
+        Games serviceResult = gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "true");
         assertNotNull(games);
         assertEquals(games.getItemsPerPage(), serviceResult.getItemsPerPage());
         assertEquals(games.getStartIndex(), serviceResult.getStartIndex());
         assertEquals(games.getTotalResults(), serviceResult.getTotalResults());
+        assertTrue(serviceResult.getTotalResultsExact());
         assertEquals(games.getItems().get(0).getDeveloper(), serviceResult.getItems().get(0).getDeveloper());
         assertEquals(games.getItems().get(0).getTitle(), serviceResult.getItems().get(0).getTitle());
     }
 
+    @Test
+    @DisplayName("Test successful list all games without a total")
+    void listAllGamesWithoutTotalSuccessful() throws ServiceException, ValidationException {
+        Pageable pageable = PageRequest.of(0, 5, ID_ORDER);
+        when(gameRepository.findAllBy(pageable)).thenReturn(gameSlice);
+        when(gameSlice.getContent()).thenReturn(createGames().getItems());
+        when(gameSlice.getPageable()).thenReturn(pageable);
+        when(gameSlice.getSize()).thenReturn(5);
+
+        Games serviceResult = gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "false");
+        assertEquals(1, serviceResult.getItems().size());
+        assertNull(serviceResult.getTotalResults());
+        assertNull(serviceResult.getTotalResultsExact());
+        verify(gameRepository, never()).countMatching(NO_FILTER);
+    }
+
+    @Test
+    @DisplayName("Test successful list all games with an estimated total")
+    void listAllGamesEstimatedTotalSuccessful() throws ServiceException, ValidationException {
+        Pageable pageable = PageRequest.of(0, 5, ID_ORDER);
+        when(gameRepository.findAllBy(pageable)).thenReturn(gameSlice);
+        when(gameSlice.getContent()).thenReturn(createGames().getItems());
+        when(gameSlice.getPageable()).thenReturn(pageable);
+        when(gameSlice.getSize()).thenReturn(5);
+        when(gameCountCache.getEstimatedCount()).thenReturn(100L);
+
+        Games serviceResult = gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "estimated");
+        assertEquals(Long.valueOf(100L), serviceResult.getTotalResults());
+        assertFalse(serviceResult.getTotalResultsExact());
+    }
+
+    @Test
+    @DisplayName("Test successful list of filtered games counts the matches exactly")
+    void listAllGamesFilteredSuccessful() throws ServiceException, ValidationException {
+        GameFilter filter = GameFilter.of(DEVELOPER_NAME, null, "any", null, null);
+        Pageable pageable = PageRequest.of(0, 5, ID_ORDER);
+        when(gameRepository.findMatching(filter, GameFields.ALL, pageable)).thenReturn(gameSlice);
+        when(gameSlice.getContent()).thenReturn(createGames().getItems());
+        when(gameSlice.getPageable()).thenReturn(pageable);
+        when(gameSlice.getSize()).thenReturn(5);
+        when(gameRepository.countMatching(filter)).thenReturn(1L);
+
+        Games serviceResult = gameService.listAllGames(filter, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "estimated");
+        assertEquals(1, serviceResult.getItems().size());
+        assertEquals(Long.valueOf(1L), serviceResult.getTotalResults());
+        assertTrue(serviceResult.getTotalResultsExact());
+        verify(gameCountCache, never()).getEstimatedCount();
+    }
+
+    @Test
+    @DisplayName("Test successful list of projected games")
+    void listAllGamesProjectedSuccessful() throws ServiceException, ValidationException {
+        GameFields fields = GameFields.of("id,title");
+        Pageable pageable = PageRequest.of(0, 5, ID_ORDER);
+        when(gameRepository.findMatching(NO_FILTER, fields, pageable)).thenReturn(gameSlice);
+        when(gameSlice.getContent()).thenReturn(createGames().getItems());
+        when(gameSlice.getPageable()).thenReturn(pageable);
+        when(gameSlice.getSize()).thenReturn(5);
+        when(gameCountCache.getEstimatedCount()).thenReturn(100L);
+
+        Games serviceResult = gameService.listAllGames(NO_FILTER, fields, START_INDEX, ITEMS_PER_PAGE, "estimated");
+        assertEquals(1, serviceResult.getItems().size());
+        assertEquals(Long.valueOf(100L), serviceResult.getTotalResults());
+        assertFalse(serviceResult.getTotalResultsExact());
+        verify(gameRepository, never()).findAllBy(pageable);
+    }
+
+    @Test
+    @DisplayName("Test successful list of filtered games by cursor")
+    void listGamesAfterFilteredSuccessful() throws ServiceException, ValidationException {
+        GameFilter filter = GameFilter.of(null, Collections.singletonList("rpg"), "any", null, null);
+        when(gameRepository.findMatchingAfter(filter, GameFields.ALL, "e", 6)).thenReturn(createGameList("f"));
+
+        Games serviceResult = gameService.listGamesAfter(filter, GameFields.ALL, PageCursor.encode("e"), ITEMS_PER_PAGE);
+        assertEquals(1, serviceResult.getItems().size());
+        assertNull(serviceResult.getNext());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful list all games - invalid include-total")
+    void listAllGamesUnsuccessfulInvalidIncludeTotal() {
+        assertThrows(ValidationException.class, () -> gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "sometimes"));
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful list all games - invalid paging parameters")
+    void listAllGamesUnsuccessfulInvalidPaging() {
+        assertThrows(ValidationException.class, () -> gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, "0", "true"));
+        assertThrows(ValidationException.class, () -> gameService.listAllGames(NO_FILTER, GameFields.ALL, "-1", ITEMS_PER_PAGE, "true"));
+        assertThrows(ValidationException.class, () -> gameService.listAllGames(NO_FILTER, GameFields.ALL, "first", ITEMS_PER_PAGE, "true"));
+        verifyNoMoreInteractions(gameRepository);
+    }
+
     @Test
     @DisplayName("Test unsuccessful list all games - MongoException")
     void testListAllGamesUnsuccessful() {
-        Pageable pageable = PageRequest.of(0, 5);
+        Pageable pageable = PageRequest.of(0, 5, ID_ORDER);
 
-        when(gameRepository.findAll(pageable)).thenThrow(MongoException.class);
+        when(gameRepository.findAllBy(pageable)).thenThrow(MongoException.class);
 
-        assertThrows(ServiceException.class, () -> gameService.listAllGames(START_INDEX, ITEMS_PER_PAGE));
+        assertThrows(ServiceException.class, () -> gameService.listAllGames(NO_FILTER, GameFields.ALL, START_INDEX, ITEMS_PER_PAGE, "true"));
     }
 
     @Test
-    @DisplayName("Test successful delete of game")
-    void testDeleteGameSuccessful() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException {
+    @DisplayName("Test successful list of first page of games by cursor")
+    void listGamesAfterFirstPageSuccessful() throws ServiceException, ValidationException {
+        List<Game> items = createGameList("a", "b", "c", "d", "e", "f");
+        when(gameRepository.findAllByOrderByIdAsc(PageRequest.of(0, 6))).thenReturn(items);
+
+        Games serviceResult = gameService.listGamesAfter(NO_FILTER, GameFields.ALL, "", ITEMS_PER_PAGE);
+        assertEquals(5, serviceResult.getItems().size());
+        assertEquals(PageCursor.encode("e"), serviceResult.getNext());
+        assertNull(serviceResult.getTotalResults());
+    }
+
+    @Test
+    @DisplayName("Test successful list of last page of games by cursor")
+    void listGamesAfterLastPageSuccessful() throws ServiceException, ValidationException {
+        List<Game> items = createGameList("f");
+        when(gameRepository.findByIdGreaterThanOrderByIdAsc("e", PageRequest.of(0, 6))).thenReturn(items);
+
+        Games serviceResult = gameService.listGamesAfter(NO_FILTER, GameFields.ALL, PageCursor.encode("e"), ITEMS_PER_PAGE);
+        assertEquals(1, serviceResult.getItems().size());
+        assertNull(serviceResult.getNext());
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful list of games by cursor - invalid cursor")
+    void listGamesAfterUnsuccessfulInvalidCursor() {
+        assertThrows(ValidationException.class, () -> gameService.listGamesAfter(NO_FILTER, GameFields.ALL, "not a cursor!", ITEMS_PER_PAGE));
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful list of games by cursor - items-per-page outside 1..max")
+    void listGamesAfterUnsuccessfulInvalidItemsPerPage() {
+        assertThrows(ValidationException.class, () -> gameService.listGamesAfter(NO_FILTER, GameFields.ALL, "", "0"));
+        assertThrows(ValidationException.class, () -> gameService.listGamesAfter(NO_FILTER, GameFields.ALL, "", "-5"));
+        assertThrows(ValidationException.class, () -> gameService.listGamesAfter(NO_FILTER, GameFields.ALL, "", "101"));
+        assertThrows(ValidationException.class, () -> gameService.listGamesAfter(NO_FILTER, GameFields.ALL, "", "five"));
+        verifyNoMoreInteractions(gameRepository);
+    }
+
+    @Test
+    @DisplayName("Test unsuccessful list of games by cursor - MongoException")
+    void listGamesAfterUnsuccessfulMongoException() {
+        when(gameRepository.findAllByOrderByIdAsc(PageRequest.of(0, 6))).thenThrow(MongoException.class);
+
+        assertThrows(ServiceException.class, () -> gameService.listGamesAfter(NO_FILTER, GameFields.ALL, "", ITEMS_PER_PAGE));
+    }
+
+    @Test
+    @DisplayName("Test version of a cached game is read from the cache")
+    void findVersionCached() throws ServiceException {
         Game game = createGame();
-        ArgumentCaptor<Game> arg = ArgumentCaptor.forClass(Game.class);
+        game.setVersion(VERSION);
+        doReturn(Optional.of(game)).when(gameCache).getIfPresent(ID);
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
+        assertEquals(Optional.of(VERSION), gameService.findVersion(ID));
+        verifyNoMoreInteractions(gameRepository);
+    }
+
+    @Test
+    @DisplayName("Test version of an uncached game is read without the rest of the game")
+    void findVersionUncached() throws ServiceException {
+        Game version = new Game();
+        version.setId(ID);
+        version.setVersion(VERSION);
+        when(gameRepository.findProjected(ID, GameFields.VERSION)).thenReturn(Optional.of(version));
+
+        assertEquals(Optional.of(VERSION), gameService.findVersion(ID));
+    }
+
+    @Test
+    @DisplayName("Test successful delete of game")
+    void testDeleteGameSuccessful() throws ServiceException, UnauthorisedDeveloperException, ResourceNotFoundException, PreconditionFailedException {
+        when(gameRepository.deleteIfDeveloper(ID, DEVELOPER_NAME, VERSION)).thenReturn(true);
+
+        gameService.deleteGame(ID, DEVELOPER_NAME, VERSION);
+
+        verify(gameRepository, never()).findById(ID);
+        verify(gameCache, never()).invalidate(ID);
+        verify(gameCache).put(ID, Optional.empty());
+        verify(titleSearchIndex).remove(ID);
+    }
+
+    @Test
+    @DisplayName("Test successful title search")
+    void searchTitlesSuccessful() throws ServiceException, ValidationException {
+        List<GameTitle> titles = Collections.singletonList(new GameTitle(ID, TITLE));
+        when(titleSearchIndex.search("tit", 10)).thenReturn(titles);
+
+        GameTitles serviceResult = gameService.searchTitles("tit", "10");
+        assertEquals(titles, serviceResult.getItems());
+    }
 
-        gameService.deleteGame(ID, DEVELOPER_NAME);
+    @Test
+    @DisplayName("Test unsuccessful title search - empty query")
+    void searchTitlesUnsuccessfulEmptyQuery() {
+        assertThrows(ValidationException.class, () -> gameService.searchTitles(" ", "10"));
+        verifyZeroInteractions(titleSearchIndex);
+    }
 
-        verify(gameRepository, times(1)).delete(arg.capture());
-        assertEquals(game, arg.getValue());
+    @Test
+    @DisplayName("Test unsuccessful title search - limit not a whole number or out of range")
+    void searchTitlesUnsuccessfulInvalidLimit() {
+        assertThrows(ValidationException.class, () -> gameService.searchTitles("tit", "abc"));
+        assertThrows(ValidationException.class, () -> gameService.searchTitles("tit", "-1"));
+        assertThrows(ValidationException.class, () -> gameService.searchTitles("tit", "0"));
+        assertThrows(ValidationException.class, () -> gameService.searchTitles("tit", "51"));
+        verifyZeroInteractions(titleSearchIndex);
     }
 
     @Test
@@ -299,7 +626,7 @@ public class GameServiceTest {
     void testDeleteGameUnsuccessful() {
         when(gameRepository.findById(ID)).thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> gameService.deleteGame(ID, DEVELOPER_NAME));
+        assertThrows(ResourceNotFoundException.class, () -> gameService.deleteGame(ID, DEVELOPER_NAME, null));
     }
 
     @Test
@@ -310,33 +637,33 @@ public class GameServiceTest {
 
         when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
 
-        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.deleteGame(ID, DEVELOPER_NAME));
+        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.deleteGame(ID, DEVELOPER_NAME, null));
     }
 
     @Test
     @DisplayName("Test delete game unsuccessful - unauthorised - null developer")
     void testDeleteGameUnsuccessfulUnauthorisedNullDeveloper() {
+        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.deleteGame(ID, null, null));
+        verifyZeroInteractions(gameRepository);
+    }
+
+    @Test
+    @DisplayName("Test delete game unsuccessful - version has changed")
+    void testDeleteGameUnsuccessfulPreconditionFailed() {
         Game game = createGame();
+        game.setVersion(VERSION + 1);
 
         when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
 
-        assertThrows(UnauthorisedDeveloperException.class, () -> gameService.deleteGame(ID, null));
+        assertThrows(PreconditionFailedException.class, () -> gameService.deleteGame(ID, DEVELOPER_NAME, VERSION));
     }
 
     @Test
     @DisplayName("Test delete game unsuccessful - MongoException")
     void testDeleteGameUnsuccessfulMongoException() {
-        Game game = createGame();
+        when(gameRepository.deleteIfDeveloper(ID, DEVELOPER_NAME, null)).thenThrow(MongoException.class);
 
-        when(gameRepository.findById(ID)).thenReturn(Optional.of(game));
-        doThrow(MongoException.class).when(gameRepository).delete(game);
-
-        assertThrows(ServiceException.class, () -> gameService.deleteGame(ID, DEVELOPER_NAME));
-    }
-
-    private void setAuthorisedDevelopers() {
-        DEVELOPER.setName(DEVELOPER_NAME);
-        authorisedDevelopers.add(DEVELOPER);
+        assertThrows(ServiceException.class, () -> gameService.deleteGame(ID, DEVELOPER_NAME, null));
     }
 
     private Game createGame() {
@@ -347,6 +674,16 @@ public class GameServiceTest {
         return game;
     }
 
+    private List<Game> createGameList(String... ids) {
+        List<Game> gamesList = new ArrayList<>();
+        for (String id : ids) {
+            Game game = createGame();
+            game.setId(id);
+            gamesList.add(game);
+        }
+        return gamesList;
+    }
+
     private Games createGames() {
         Games games = new Games();
         List<Game> gamesList = new ArrayList<>();
@@ -0,0 +1,174 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.IdempotencyRecord;
+import com.rsachdev.Games.API.repository.IdempotencyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyStoreTest {
+    private static final String ID = "developer:key";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final long NOW = 1_000_000L;
+    private static final long LEASE_MS = 10_000L;
+    private static final List<String> GAME_IDS = Collections.singletonList("game-id");
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyStore, "ttlSeconds", 86400L);
+        ReflectionTestUtils.setField(idempotencyStore, "leaseMs", LEASE_MS);
+        ReflectionTestUtils.setField(idempotencyStore, "maximumSize", 100L);
+        ReflectionTestUtils.setField(idempotencyStore, "clock", (LongSupplier) () -> NOW);
+        idempotencyStore.init();
+    }
+
+    @Test
+    @DisplayName("Test a new key is claimed by inserting its record with the game ids")
+    void newKeyClaimed() throws ServiceException {
+        IdempotencyStore.Claim claim = idempotencyStore.claim(ID, FINGERPRINT, GAME_IDS);
+
+        assertTrue(claim.isOwned());
+        assertEquals(GAME_IDS, claim.getRecord().getGameIds());
+        verify(idempotencyRepository).ensureExpiryIndex(86400L);
+        verify(idempotencyRepository).insert(claim.getRecord());
+    }
+
+    @Test
+    @DisplayName("Test a completed key is returned and held in memory")
+    void completedKeyCached() throws ServiceException {
+        IdempotencyRecord record = record(NOW - 1000);
+        record.setStatus(201);
+        when(idempotencyRepository.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(idempotencyRepository.findById(ID)).thenReturn(Optional.of(record));
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(ID, FINGERPRINT, GAME_IDS);
+        assertFalse(claim.isOwned());
+        assertSame(record, claim.getRecord());
+        assertSame(record, idempotencyStore.getCompleted(ID).get());
+    }
+
+    @Test
+    @DisplayName("Test a key still within its lease is not claimed again")
+    void inProgressKeyNotClaimed() throws ServiceException {
+        IdempotencyRecord record = record(NOW - LEASE_MS / 2);
+        when(idempotencyRepository.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(idempotencyRepository.findById(ID)).thenReturn(Optional.of(record));
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(ID, FINGERPRINT, GAME_IDS);
+        assertFalse(claim.isOwned());
+        assertSame(record, claim.getRecord());
+        assertFalse(idempotencyStore.getCompleted(ID).isPresent());
+        verify(idempotencyRepository, never()).claimAbandoned(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test a key abandoned past its lease is claimed again with its original game ids")
+    void abandonedKeyClaimed() throws ServiceException {
+        IdempotencyRecord record = record(NOW - LEASE_MS - 1);
+        IdempotencyRecord reclaimed = record(NOW);
+        when(idempotencyRepository.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(idempotencyRepository.findById(ID)).thenReturn(Optional.of(record));
+        when(idempotencyRepository.claimAbandoned(ID, FINGERPRINT, new Date(NOW - LEASE_MS), new Date(NOW))).thenReturn(reclaimed);
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(ID, FINGERPRINT, Collections.singletonList("other"));
+        assertTrue(claim.isOwned());
+        assertEquals(GAME_IDS, claim.getRecord().getGameIds());
+    }
+
+    @Test
+    @DisplayName("Test a key abandoned after a failed write is claimed again without waiting for its lease")
+    void failedKeyClaimed() throws ServiceException {
+        IdempotencyRecord record = record(NOW - LEASE_MS / 2);
+        record.setAbandoned(true);
+        when(idempotencyRepository.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(idempotencyRepository.findById(ID)).thenReturn(Optional.of(record));
+        when(idempotencyRepository.claimAbandoned(ID, FINGERPRINT, new Date(NOW - LEASE_MS), new Date(NOW))).thenReturn(record(NOW));
+
+        assertTrue(idempotencyStore.claim(ID, FINGERPRINT, GAME_IDS).isOwned());
+    }
+
+    @Test
+    @DisplayName("Test an abandoned key is not claimed by a different request")
+    void abandonedKeyNotClaimedByOtherRequest() throws ServiceException {
+        IdempotencyRecord record = record(NOW - LEASE_MS - 1);
+        when(idempotencyRepository.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(idempotencyRepository.findById(ID)).thenReturn(Optional.of(record));
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(ID, "other", GAME_IDS);
+        assertFalse(claim.isOwned());
+        assertSame(record, claim.getRecord());
+        verify(idempotencyRepository, never()).claimAbandoned(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test a failure to abandon a key is logged rather than thrown")
+    void abandonFailureLogged() {
+        doThrow(new DataAccessResourceFailureException("unavailable")).when(idempotencyRepository).abandon(ID);
+
+        idempotencyStore.abandon(ID);
+        verify(idempotencyRepository).abandon(ID);
+    }
+
+    @Test
+    @DisplayName("Test a completed response is held in memory even if it cannot be stored")
+    void completeSurvivesStoreFailure() {
+        when(idempotencyRepository.save(any(IdempotencyRecord.class))).thenThrow(new DataAccessResourceFailureException("unavailable"));
+
+        idempotencyStore.complete(ID, FINGERPRINT, 201, "/games/id", null);
+
+        IdempotencyRecord record = idempotencyStore.getCompleted(ID).get();
+        assertEquals(Integer.valueOf(201), record.getStatus());
+        assertEquals("/games/id", record.getLocation());
+    }
+
+    @Test
+    @DisplayName("Test a failure to claim a key is thrown as a ServiceException")
+    void claimFailure() {
+        when(idempotencyRepository.insert(any(IdempotencyRecord.class))).thenThrow(new DataAccessResourceFailureException("unavailable"));
+
+        ServiceException se = assertThrows(ServiceException.class, () -> idempotencyStore.claim(ID, FINGERPRINT, GAME_IDS));
+        assertTrue(se.getCause() instanceof DataAccessResourceFailureException);
+    }
+
+    private static IdempotencyRecord record(long createdAt) {
+        return new IdempotencyRecord(ID, FINGERPRINT, GAME_IDS, new Date(createdAt));
+    }
+}
@@ -0,0 +1,236 @@
+package com.rsachdev.Games.API.service;
+
+import com.rsachdev.Games.API.exception.PreconditionFailedException;
+import com.rsachdev.Games.API.exception.ResourceNotFoundException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.exception.UnauthorisedDeveloperException;
+import com.rsachdev.Games.API.exception.ValidationException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFields;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.Games;
+import com.rsachdev.Games.API.repository.ReactiveGameRepository;
+import com.rsachdev.Games.API.validation.GameValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReactiveGameServiceTest {
+    private static final String ID = "id";
+    private static final String DEVELOPER_NAME = "developer";
+    private static final String TITLE = "title";
+    private static final Long VERSION = 3L;
+
+    @Mock
+    private ReactiveGameRepository reactiveGameRepository;
+
+    @Mock
+    private GameValidator gameValidator;
+
+    @Mock
+    private DeveloperRegistry developerRegistry;
+
+    @Mock
+    private TitleSearchIndex titleSearchIndex;
+
+    @InjectMocks
+    private ReactiveGameService reactiveGameService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reactiveGameService, "maxItemsPerPage", 100);
+        ReflectionTestUtils.setField(reactiveGameService, "maxSearchResults", 50);
+    }
+
+    @Test
+    @DisplayName("Test get by id completes empty when the game does not exist")
+    void getByIdEmpty() {
+        when(reactiveGameRepository.findById(ID)).thenReturn(Mono.empty());
+
+        assertNull(reactiveGameService.getById(ID, GameFields.ALL).block());
+    }
+
+    @Test
+    @DisplayName("Test create game successful")
+    void createGameSuccessful() throws ServiceException {
+        Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(developerRegistry.isLoaded()).thenReturn(true);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(true);
+        when(reactiveGameRepository.insert(game)).thenReturn(Mono.just(game));
+
+        assertEquals(game, reactiveGameService.createGame(game, DEVELOPER_NAME).block());
+    }
+
+    @Test
+    @DisplayName("Test create game loads the developer list off the calling thread when cold")
+    void createGameColdDeveloperList() throws ServiceException {
+        Game game = createGame();
+        Thread caller = Thread.currentThread();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(developerRegistry.isLoaded()).thenReturn(false);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenAnswer(invocation -> Thread.currentThread() != caller);
+        when(reactiveGameRepository.insert(game)).thenReturn(Mono.just(game));
+
+        assertEquals(game, reactiveGameService.createGame(game, DEVELOPER_NAME).block());
+    }
+
+    @Test
+    @DisplayName("Test create game unsuccessful - unauthorised developer")
+    void createGameUnauthorised() throws ServiceException {
+        Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(developerRegistry.isLoaded()).thenReturn(true);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenReturn(false);
+
+        assertTrue(failureOf(reactiveGameService.createGame(game, DEVELOPER_NAME)) instanceof UnauthorisedDeveloperException);
+        verify(reactiveGameRepository, never()).insert(any(Game.class));
+    }
+
+    @Test
+    @DisplayName("Test create game unsuccessful - developer list unavailable")
+    void createGameDeveloperListUnavailable() throws ServiceException {
+        Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(developerRegistry.isLoaded()).thenReturn(true);
+        when(developerRegistry.isAuthorised(DEVELOPER_NAME)).thenThrow(ServiceException.class);
+
+        assertTrue(failureOf(reactiveGameService.createGame(game, DEVELOPER_NAME)) instanceof ServiceException);
+    }
+
+    @Test
+    @DisplayName("Test title search unsuccessful - limit not a whole number or out of range")
+    void searchTitlesInvalidLimit() {
+        assertTrue(failureOf(reactiveGameService.searchTitles("tit", "abc")) instanceof ValidationException);
+        assertTrue(failureOf(reactiveGameService.searchTitles("tit", "-1")) instanceof ValidationException);
+        assertTrue(failureOf(reactiveGameService.searchTitles("tit", "51")) instanceof ValidationException);
+    }
+
+    @Test
+    @DisplayName("Test create game unsuccessful - validation errors")
+    void createGameValidationErrors() {
+        Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.singletonList("title is empty"));
+
+        assertTrue(failureOf(reactiveGameService.createGame(game, DEVELOPER_NAME)) instanceof ValidationException);
+    }
+
+    @Test
+    @DisplayName("Test list all games with an exact total")
+    void listAllGamesExactTotal() {
+        when(reactiveGameRepository.findAllBy(PageRequest.of(0, 10, Sort.by("id")))).thenReturn(Flux.just(createGame()));
+        when(reactiveGameRepository.count()).thenReturn(Mono.just(11L));
+
+        Games games = reactiveGameService.listAllGames(new GameFilter(), GameFields.ALL, "0", "10", "true").block();
+        assertNotNull(games);
+        assertEquals(1, games.getItems().size());
+        assertEquals(Long.valueOf(11), games.getTotalResults());
+        assertTrue(games.getTotalResultsExact());
+    }
+
+    @Test
+    @DisplayName("Test list games after cursor sets next when there are more games")
+    void listGamesAfterSetsNext() {
+        Game first = createGame();
+        first.setId("a");
+        Game second = createGame();
+        second.setId("b");
+
+        when(reactiveGameRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2))).thenReturn(Flux.just(first, second));
+
+        Games games = reactiveGameService.listGamesAfter(new GameFilter(), GameFields.ALL, "", "1").block();
+        assertNotNull(games);
+        assertEquals(1, games.getItems().size());
+        assertEquals(PageCursor.encode("a"), games.getNext());
+    }
+
+    @Test
+    @DisplayName("Test list games after cursor fails with ValidationException when items-per-page is zero")
+    void listGamesAfterInvalidItemsPerPage() {
+        assertTrue(failureOf(reactiveGameService.listGamesAfter(new GameFilter(), GameFields.ALL, "", "0")) instanceof ValidationException);
+        verifyNoMoreInteractions(reactiveGameRepository);
+    }
+
+    @Test
+    @DisplayName("Test update game successful")
+    void updateGameSuccessful() {
+        Game game = createGame();
+        Game updated = createGame();
+        updated.setVersion(VERSION + 1);
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(reactiveGameRepository.updateIfDeveloper(game, DEVELOPER_NAME, VERSION)).thenReturn(Mono.just(updated));
+
+        assertEquals(updated, reactiveGameService.updateGame(game, ID, DEVELOPER_NAME, VERSION).block());
+    }
+
+    @Test
+    @DisplayName("Test update game unsuccessful - stale version")
+    void updateGameStaleVersion() {
+        Game game = createGame();
+
+        when(gameValidator.validateNotNullOrEmpty(game)).thenReturn(Collections.emptyList());
+        when(reactiveGameRepository.updateIfDeveloper(game, DEVELOPER_NAME, VERSION)).thenReturn(Mono.empty());
+        when(reactiveGameRepository.findById(ID)).thenReturn(Mono.just(createGame()));
+
+        assertTrue(failureOf(reactiveGameService.updateGame(game, ID, DEVELOPER_NAME, VERSION)) instanceof PreconditionFailedException);
+    }
+
+    @Test
+    @DisplayName("Test delete game unsuccessful - not found")
+    void deleteGameNotFound() {
+        when(reactiveGameRepository.deleteIfDeveloper(ID, DEVELOPER_NAME, null)).thenReturn(Mono.just(false));
+        when(reactiveGameRepository.findById(ID)).thenReturn(Mono.empty());
+
+        assertTrue(failureOf(reactiveGameService.deleteGame(ID, DEVELOPER_NAME, null)) instanceof ResourceNotFoundException);
+    }
+
+    @Test
+    @DisplayName("Test delete game unsuccessful - another developer's game")
+    void deleteGameUnauthorised() {
+        Game other = createGame();
+        other.setDeveloper("other");
+
+        when(reactiveGameRepository.deleteIfDeveloper(ID, DEVELOPER_NAME, null)).thenReturn(Mono.just(false));
+        when(reactiveGameRepository.findById(ID)).thenReturn(Mono.just(other));
+
+        assertTrue(failureOf(reactiveGameService.deleteGame(ID, DEVELOPER_NAME, null)) instanceof UnauthorisedDeveloperException);
+    }
+
+    private Throwable failureOf(Mono<?> result) {
+        return result.materialize().block().getThrowable();
+    }
+
+    private Game createGame() {
+        Game game = new Game();
+        game.setDeveloper(DEVELOPER_NAME);
+        game.setTitle(TITLE);
+        game.setId(ID);
+        return game;
+    }
+}
@@ -0,0 +1,107 @@
+package com.rsachdev.Games.API.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+    private static final String KEY = "id";
+    private static final int CALLERS = 8;
+
+    private SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test concurrent loads of the same key share one call")
+    void concurrentLoadsCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = startCallers(key -> {
+            loads.incrementAndGet();
+            await(release);
+            return "value";
+        });
+
+        awaitWaiters();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(CALLERS - 1, singleFlight.sharedLoads());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Test a failed load is rethrown to every waiting caller")
+    void failureShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = startCallers(key -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new IllegalStateException("failed");
+        });
+
+        awaitWaiters();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException ee = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertTrue(ee.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test a completed load is not reused")
+    void sequentialLoadsNotShared() {
+        singleFlight.load(KEY, key -> "first");
+
+        assertEquals("second", singleFlight.load(KEY, key -> "second"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    private List<Future<String>> startCallers(Function<String, String> loader) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.load(KEY, loader)));
+        }
+        return results;
+    }
+
+    private void awaitWaiters() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.sharedLoads() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
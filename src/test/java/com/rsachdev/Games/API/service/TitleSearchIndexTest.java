@@ -0,0 +1,133 @@
+package com.rsachdev.Games.API.service;
+
+import com.mongodb.MongoException;
+import com.rsachdev.Games.API.exception.ServiceException;
+import com.rsachdev.Games.API.model.Game;
+import com.rsachdev.Games.API.model.GameFilter;
+import com.rsachdev.Games.API.model.GameTitle;
+import com.rsachdev.Games.API.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class TitleSearchIndexTest {
+    private static final int LOAD_BATCH_SIZE = 100;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @InjectMocks
+    private TitleSearchIndex titleSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(titleSearchIndex, "maxResults", 50);
+        ReflectionTestUtils.setField(titleSearchIndex, "loadBatchSize", LOAD_BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Test search before the index has loaded")
+    void searchBeforeLoad() {
+        assertThrows(ServiceException.class, () -> titleSearchIndex.search("fifa", 10));
+    }
+
+    @Test
+    @DisplayName("Test search matches whole tokens and completes the last token")
+    void searchMatchesTokensAndPrefix() throws ServiceException {
+        load(game("1", "FIFA 19"), game("2", "Cricket 19"), game("3", "Final Fantasy VII"), game("4", "Fifa Street"));
+
+        assertEquals(Arrays.asList("1", "4"), ids(titleSearchIndex.search("fif", 10)));
+        assertEquals(Arrays.asList("1", "4", "3"), ids(titleSearchIndex.search("Fi", 10)));
+        assertEquals(Arrays.asList("1"), ids(titleSearchIndex.search("fifa 1", 10)));
+        assertEquals(Arrays.asList("3"), ids(titleSearchIndex.search("  final: FANT", 10)));
+        assertTrue(titleSearchIndex.search("fif 19", 10).isEmpty());
+        assertTrue(titleSearchIndex.search("!!", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test search returns at most the requested number of titles")
+    void searchHonoursLimit() throws ServiceException {
+        load(game("1", "Racer 1"), game("2", "Racer 2"), game("3", "Racer 3"));
+
+        assertEquals(2, titleSearchIndex.search("racer", 2).size());
+        assertEquals(2, titleSearchIndex.search("racer r", 2).size());
+    }
+
+    @Test
+    @DisplayName("Test writes are reflected in the index")
+    void writesUpdateIndex() throws ServiceException {
+        load(game("1", "FIFA 19"));
+
+        titleSearchIndex.index(game("2", "FIFA 20"));
+        titleSearchIndex.index(game("1", "Pro Evolution Soccer"));
+        assertEquals(Arrays.asList("2"), ids(titleSearchIndex.search("fifa", 10)));
+        assertEquals(Arrays.asList("1"), ids(titleSearchIndex.search("soccer", 10)));
+
+        titleSearchIndex.remove("2");
+        assertTrue(titleSearchIndex.search("fifa", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a failed rebuild keeps the last index")
+    void failedRebuildKeepsIndex() throws ServiceException {
+        load(game("1", "FIFA 19"));
+
+        when(gameRepository.streamAfter(new GameFilter(), null, LOAD_BATCH_SIZE)).thenThrow(MongoException.class);
+        titleSearchIndex.rebuild();
+
+        assertEquals(Arrays.asList("1"), ids(titleSearchIndex.search("fifa", 10)));
+    }
+
+    private void load(Game... games) {
+        Iterator<Game> iterator = Arrays.asList(games).iterator();
+
+        when(gameRepository.streamAfter(new GameFilter(), null, LOAD_BATCH_SIZE)).thenReturn(new CloseableIterator<Game>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Game next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        titleSearchIndex.rebuild();
+    }
+
+    private List<String> ids(List<GameTitle> titles) {
+        return titles.stream().map(GameTitle::getId).collect(Collectors.toList());
+    }
+
+    private Game game(String id, String title) {
+        Game game = new Game();
+        game.setId(id);
+        game.setTitle(title);
+        game.setDeveloper("developer");
+        return game;
+    }
+}